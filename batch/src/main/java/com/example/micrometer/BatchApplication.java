@@ -1,5 +1,6 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
@@ -12,10 +13,13 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @SpringBootApplication
@@ -28,7 +32,7 @@ public class BatchApplication {
     }
 
     @Bean
-    Job myJob(Step step, JobRepository jobRepository, Tracer tracer, ObservationRegistry observationRegistry) {
+    Job myJob(Step myStep, JobRepository jobRepository, Tracer tracer, ObservationRegistry observationRegistry) {
         return new JobBuilder("myJob", jobRepository).listener(new JobExecutionListener() {
             @Override
             public void beforeJob(JobExecution jobExecution) {
@@ -39,7 +43,7 @@ public class BatchApplication {
             public void afterJob(JobExecution jobExecution) {
 
             }
-        }).observationRegistry(observationRegistry).start(step).build();
+        }).observationRegistry(observationRegistry).start(myStep).build();
     }
 
     @Bean
@@ -50,4 +54,34 @@ public class BatchApplication {
         }, platformTransactionManager).build();
     }
 
+    // run it with spring.batch.job.name=chunkJob
+    @Bean
+    Job chunkJob(ChunkJobs chunkJobs, @Value("${chunk-job.items:1000000}") long items,
+            @Value("${chunk-job.chunk-size:1000}") int chunkSize, @Value("${chunk-job.threads:4}") int threads) {
+        return chunkJobs.create("chunkJob", items, chunkSize, threads);
+    }
+
+    @Bean
+    ChunkJobs chunkJobs(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
+            ObservationRegistry observationRegistry, ThreadPoolTaskExecutor chunkTaskExecutor) {
+        return new ChunkJobs(jobRepository, platformTransactionManager, observationRegistry, chunkTaskExecutor);
+    }
+
+    // how many chunks run at once is limited per step, see ChunkJobs
+    @Bean
+    ThreadPoolTaskExecutor chunkTaskExecutor(@Value("${chunk-job.pool-size:16}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("chunk-");
+        executor.setDaemon(true);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        return executor;
+    }
+
+    @Bean
+    static JobRepositoryTimingPostProcessor jobRepositoryTimingPostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<JobRepository> jobRepository) {
+        return new JobRepositoryTimingPostProcessor(meterRegistry, jobRepository);
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the chunk-oriented job for every combination of {@code benchmark.chunk-sizes} and
+ * {@code benchmark.threads} over {@code benchmark.items} generated rows and logs
+ * items/sec together with the number of chunks and how much of the time was spent in the
+ * job repository. Start it with {@code benchmark=chunk}, adding
+ * {@code spring.batch.job.enabled=false} skips running {@code myJob} on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "chunk")
+class ChunkBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkBenchmark.class);
+
+    private final JobLauncher jobLauncher;
+
+    private final ChunkJobs chunkJobs;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long items;
+
+    private final List<Integer> chunkSizes;
+
+    private final List<Integer> threads;
+
+    ChunkBenchmark(JobLauncher jobLauncher, ChunkJobs chunkJobs, MeterRegistry meterRegistry,
+            @Value("${benchmark.items:1000000}") long items,
+            @Value("${benchmark.chunk-sizes:100,1000,10000}") List<Integer> chunkSizes,
+            @Value("${benchmark.threads:1,4}") List<Integer> threads) {
+        this.jobLauncher = jobLauncher;
+        this.chunkJobs = chunkJobs;
+        this.meterRegistry = meterRegistry;
+        this.items = items;
+        this.chunkSizes = chunkSizes;
+        this.threads = threads;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Chunk benchmark, {} items, chunk sizes {}, threads {}", this.items, this.chunkSizes, this.threads);
+        // warm up the JIT, those numbers are not reported
+        measure(this.items / 10, this.chunkSizes.get(0), this.threads.get(0));
+        log.info(String.format("%8s %8s %12s %10s %12s %12s %10s", "chunk", "threads", "items/s", "chunks",
+                "repo calls", "repo ms", "repo %"));
+        for (int chunkSize : this.chunkSizes) {
+            for (int threads : this.threads) {
+                Result result = measure(this.items, chunkSize, threads);
+                log.info(String.format("%8d %8d %12.1f %10d %12d %12.1f %10.1f", chunkSize, threads,
+                        result.itemsPerSecond(), result.chunks(), result.repositoryCalls(), result.repositoryMillis(),
+                        result.repositoryShare() * 100));
+            }
+        }
+    }
+
+    Result measure(long items, int chunkSize, int threads) throws Exception {
+        long repositoryCallsBefore = repositoryCalls();
+        double repositoryMillisBefore = repositoryMillis();
+        long start = System.nanoTime();
+        JobExecution execution = this.jobLauncher.run(
+                this.chunkJobs.create("chunkBenchmark", items, chunkSize, threads),
+                new JobParametersBuilder().addLong("run", System.nanoTime()).toJobParameters());
+        long wallNanos = System.nanoTime() - start;
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException("Benchmark job ended with status " + execution.getStatus(),
+                    execution.getAllFailureExceptions().stream().findFirst().orElse(null));
+        }
+        StepExecution step = execution.getStepExecutions().iterator().next();
+        double repositoryMillis = repositoryMillis() - repositoryMillisBefore;
+        return new Result(step.getWriteCount() / (wallNanos / 1e9), step.getWriteCount(), step.getCommitCount(),
+                repositoryCalls() - repositoryCallsBefore, repositoryMillis, repositoryMillis / (wallNanos / 1e6));
+    }
+
+    private long repositoryCalls() {
+        return this.meterRegistry.find("batch.job-repository").timers().stream().mapToLong(Timer::count).sum();
+    }
+
+    private double repositoryMillis() {
+        return this.meterRegistry.find("batch.job-repository")
+            .timers()
+            .stream()
+            .mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS))
+            .sum();
+    }
+
+    record Result(double itemsPerSecond, long written, long chunks, long repositoryCalls, double repositoryMillis,
+            double repositoryShare) {
+    }
+
+}
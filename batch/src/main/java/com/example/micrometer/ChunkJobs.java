@@ -0,0 +1,125 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Builds chunk-oriented jobs that read a generated dataset of {@code items} rows, process
+ * every row and sum them up in the writer, so that what gets measured is the overhead of
+ * Spring Batch itself. With more than one thread the chunks are processed concurrently by
+ * the given {@link TaskExecutor}, one chunk per thread.
+ */
+class ChunkJobs {
+
+    private final JobRepository jobRepository;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final TaskExecutor taskExecutor;
+
+    private final ChunkObservationListener chunkObservationListener;
+
+    ChunkJobs(JobRepository jobRepository, PlatformTransactionManager transactionManager,
+            ObservationRegistry observationRegistry, TaskExecutor taskExecutor) {
+        this.jobRepository = jobRepository;
+        this.transactionManager = transactionManager;
+        this.observationRegistry = observationRegistry;
+        this.taskExecutor = taskExecutor;
+        this.chunkObservationListener = new ChunkObservationListener(observationRegistry);
+    }
+
+    Job create(String name, long items, int chunkSize, int threads) {
+        SimpleStepBuilder<Row, Row> step = new StepBuilder(name + "Step", this.jobRepository)
+            .<Row, Row>chunk(chunkSize, this.transactionManager)
+            .reader(new GeneratedRowReader(0, items))
+            .processor(new RowProcessor())
+            .writer(new SummingRowWriter())
+            .listener((ChunkListener) this.chunkObservationListener);
+        step.listener((StepExecutionListener) this.chunkObservationListener);
+        step.observationRegistry(this.observationRegistry);
+        if (threads > 1) {
+            step.taskExecutor(this.taskExecutor).throttleLimit(threads);
+        }
+        return new JobBuilder(name, this.jobRepository).observationRegistry(this.observationRegistry)
+            .start(step.build())
+            .build();
+    }
+
+    record Row(long id, String name, long amount) {
+    }
+
+    /**
+     * Generates the rows with ids from {@code min} (inclusive) to {@code max} (exclusive)
+     * on the fly. Safe to be called from several threads, there is no restart support as
+     * the order in which rows get written is not deterministic anyway.
+     */
+    static class GeneratedRowReader implements ItemStreamReader<Row> {
+
+        private final long min;
+
+        private final long max;
+
+        private final AtomicLong next = new AtomicLong();
+
+        GeneratedRowReader(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            this.next.set(this.min);
+        }
+
+        @Override
+        public Row read() {
+            long id = this.next.getAndIncrement();
+            if (id >= this.max) {
+                return null;
+            }
+            return new Row(id, "row-" + id, id % 1000);
+        }
+
+    }
+
+    static class RowProcessor implements ItemProcessor<Row, Row> {
+
+        @Override
+        public Row process(Row row) {
+            return new Row(row.id(), row.name().toUpperCase(), row.amount() * 100 + row.name().hashCode() % 100);
+        }
+
+    }
+
+    static class SummingRowWriter implements ItemWriter<Row> {
+
+        private final LongAdder sum = new LongAdder();
+
+        @Override
+        public void write(Chunk<? extends Row> chunk) {
+            for (Row row : chunk) {
+                this.sum.add(row.amount());
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every chunk in a {@code batch.chunk} observation. The chunks of a multi-threaded
+ * step run on other threads than the step itself, so the step's observation is remembered
+ * when the step starts and set as the parent of its chunks explicitly, that way all
+ * chunks end up in the trace of the job.
+ */
+class ChunkObservationListener implements StepExecutionListener, ChunkListener {
+
+    private static final String OBSERVATION_ATTRIBUTE = ChunkObservationListener.class.getName() + ".observation";
+
+    private static final String SCOPE_ATTRIBUTE = ChunkObservationListener.class.getName() + ".scope";
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Map<Long, Observation> stepObservations = new ConcurrentHashMap<>();
+
+    ChunkObservationListener(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        Observation step = this.observationRegistry.getCurrentObservation();
+        if (step != null) {
+            this.stepObservations.put(stepExecution.getId(), step);
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        this.stepObservations.remove(stepExecution.getId());
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        Observation observation = Observation.createNotStarted("batch.chunk", this.observationRegistry)
+            .parentObservation(this.stepObservations.get(stepExecution.getId()))
+            .lowCardinalityKeyValue("step", stepExecution.getStepName())
+            .start();
+        context.setAttribute(OBSERVATION_ATTRIBUTE, observation);
+        context.setAttribute(SCOPE_ATTRIBUTE, observation.openScope());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        stop(context, null);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        stop(context, (Throwable) context.getAttribute(ChunkListener.ROLLBACK_EXCEPTION_KEY));
+    }
+
+    private void stop(ChunkContext context, Throwable error) {
+        Observation.Scope scope = (Observation.Scope) context.removeAttribute(SCOPE_ATTRIBUTE);
+        Observation observation = (Observation) context.removeAttribute(OBSERVATION_ATTRIBUTE);
+        if (scope != null) {
+            scope.close();
+        }
+        if (observation != null) {
+            if (error != null) {
+                observation.error(error);
+            }
+            observation.stop();
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Times every call to the {@link JobRepository} bean, tagged with the method name, as
+ * {@code batch.job-repository}. That is the bookkeeping a step does around each chunk,
+ * i.e. the overhead of the job repository compared to the work done in the chunks.
+ * <p>
+ * Covered are the calls of the jobs and steps that are built with the bean and of the
+ * {@link TaskExecutorJobLauncher} bean. Boot's batch configuration hands the launcher a
+ * repository of its own, created next to the bean rather than taken from the context, so
+ * the launcher is given the timed bean instead. Other components of that configuration,
+ * such as the {@code JobOperator}, keep their own repository and are not covered.
+ */
+class JobRepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ObjectProvider<JobRepository> jobRepository;
+
+    JobRepositoryTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<JobRepository> jobRepository) {
+        this.meterRegistry = meterRegistry;
+        this.jobRepository = jobRepository;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof TaskExecutorJobLauncher jobLauncher) {
+            jobLauncher.setJobRepository(this.jobRepository.getObject());
+            return bean;
+        }
+        if (!(bean instanceof JobRepository jobRepository)) {
+            return bean;
+        }
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { JobRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.invoke(jobRepository, args);
+                    }
+                    Timer.Sample sample = Timer.start();
+                    try {
+                        return method.invoke(jobRepository, args);
+                    }
+                    catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                    finally {
+                        sample.stop(Timer.builder("batch.job-repository")
+                            .tag("method", method.getName())
+                            .register(this.meterRegistry.getObject()));
+                    }
+                });
+    }
+
+}
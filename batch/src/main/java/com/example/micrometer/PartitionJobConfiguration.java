@@ -0,0 +1,194 @@
+package com.example.micrometer;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.partition.BeanFactoryStepLocator;
+import org.springframework.batch.integration.partition.MessageChannelPartitionHandler;
+import org.springframework.batch.integration.partition.StepExecutionRequestHandler;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.channel.QueueChannel;
+import org.springframework.integration.core.MessagingTemplate;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Partitioned jobs over the same generated rows as the chunk job. A manager step splits
+ * the id range into {@code partition-job.grid-size} partitions that are processed by the
+ * {@code partitionWorker} step in parallel:
+ * <ul>
+ * <li>{@code partitionJob} runs the workers on local threads</li>
+ * <li>{@code remotePartitionJob} sends a request per partition through a message channel
+ * and waits for the aggregated replies, the way remote workers would be driven; here the
+ * channel is served by local threads</li>
+ * </ul>
+ * The workers' threads take over the observation of the manager step, so job, manager
+ * step, worker steps and their chunks all end up in one trace. Run one of them with
+ * {@code spring.batch.job.name}.
+ */
+@Configuration(proxyBeanMethods = false)
+class PartitionJobConfiguration {
+
+    @Bean
+    Job partitionJob(JobRepository jobRepository, ObservationRegistry observationRegistry,
+            PartitionMetrics partitionMetrics, Step partitionWorker, ThreadPoolTaskExecutor partitionTaskExecutor,
+            @Value("${partition-job.items:1000000}") long items, @Value("${partition-job.grid-size:4}") int gridSize) {
+        Step manager = new StepBuilder("partitionManager", jobRepository)
+            .partitioner(partitionWorker.getName(), new RangePartitioner(items))
+            .step(partitionWorker)
+            .gridSize(gridSize)
+            .taskExecutor(partitionTaskExecutor)
+            .listener(partitionMetrics.manager())
+            .observationRegistry(observationRegistry)
+            .build();
+        return new JobBuilder("partitionJob", jobRepository).observationRegistry(observationRegistry)
+            .start(manager)
+            .build();
+    }
+
+    @Bean
+    Job remotePartitionJob(JobRepository jobRepository, ObservationRegistry observationRegistry,
+            PartitionMetrics partitionMetrics, MessageChannelPartitionHandler partitionHandler,
+            @Value("${partition-job.items:1000000}") long items) {
+        Step manager = new StepBuilder("remotePartitionManager", jobRepository)
+            .partitioner("partitionWorker", new RangePartitioner(items))
+            .partitionHandler(partitionHandler)
+            .listener(partitionMetrics.manager())
+            .observationRegistry(observationRegistry)
+            .build();
+        return new JobBuilder("remotePartitionJob", jobRepository).observationRegistry(observationRegistry)
+            .start(manager)
+            .build();
+    }
+
+    // the bean name is the step name the workers of remotePartitionJob look up
+    @Bean
+    Step partitionWorker(JobRepository jobRepository, PlatformTransactionManager platformTransactionManager,
+            ObservationRegistry observationRegistry, PartitionMetrics partitionMetrics,
+            ChunkJobs.GeneratedRowReader partitionReader, @Value("${partition-job.chunk-size:1000}") int chunkSize) {
+        ChunkObservationListener chunkObservationListener = new ChunkObservationListener(observationRegistry);
+        return new StepBuilder("partitionWorker", jobRepository).<ChunkJobs.Row, ChunkJobs.Row>chunk(chunkSize,
+                platformTransactionManager)
+            .reader(partitionReader)
+            .processor(new ChunkJobs.RowProcessor())
+            .writer(new ChunkJobs.SummingRowWriter())
+            .listener((ChunkListener) chunkObservationListener)
+            .listener((StepExecutionListener) chunkObservationListener)
+            .listener(partitionMetrics.worker())
+            .observationRegistry(observationRegistry)
+            .build();
+    }
+
+    @Bean
+    @StepScope
+    ChunkJobs.GeneratedRowReader partitionReader(@Value("#{stepExecutionContext['min']}") long min,
+            @Value("#{stepExecutionContext['max']}") long max) {
+        return new ChunkJobs.GeneratedRowReader(min, max);
+    }
+
+    @Bean
+    PartitionMetrics partitionMetrics(MeterRegistry meterRegistry) {
+        return new PartitionMetrics(meterRegistry);
+    }
+
+    @Bean
+    ThreadPoolTaskExecutor partitionTaskExecutor(@Value("${partition-job.grid-size:4}") int gridSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("partition-");
+        executor.setDaemon(true);
+        executor.setCorePoolSize(gridSize);
+        executor.setMaxPoolSize(gridSize);
+        // the worker steps continue the trace of the manager step
+        executor.setTaskDecorator(runnable -> ContextSnapshot.captureAll().wrap(runnable));
+        return executor;
+    }
+
+    @Bean
+    MessageChannelPartitionHandler partitionHandler(JobExplorer jobExplorer, ExecutorChannel partitionRequests,
+            QueueChannel partitionReplies, @Value("${partition-job.grid-size:4}") int gridSize,
+            @Value("${partition-job.reply-timeout:10m}") Duration replyTimeout) {
+        MessagingTemplate template = new MessagingTemplate(partitionRequests);
+        MessageChannelPartitionHandler handler = new MessageChannelPartitionHandler();
+        handler.setStepName("partitionWorker");
+        handler.setGridSize(gridSize);
+        handler.setMessagingOperations(template);
+        handler.setReplyChannel(partitionReplies);
+        handler.setTimeout(replyTimeout.toMillis());
+        handler.setJobExplorer(jobExplorer);
+        return handler;
+    }
+
+    @Bean
+    ExecutorChannel partitionRequests(ThreadPoolTaskExecutor partitionTaskExecutor) {
+        return new ExecutorChannel(partitionTaskExecutor);
+    }
+
+    @Bean
+    QueueChannel partitionReplies() {
+        return new QueueChannel();
+    }
+
+    // the worker side of remotePartitionJob, it would run in other processes
+    @Bean
+    IntegrationFlow partitionWorkers(JobExplorer jobExplorer, ExecutorChannel partitionRequests,
+            MessageChannelPartitionHandler partitionHandler, BeanFactory beanFactory) {
+        BeanFactoryStepLocator stepLocator = new BeanFactoryStepLocator();
+        stepLocator.setBeanFactory(beanFactory);
+        StepExecutionRequestHandler requestHandler = new StepExecutionRequestHandler();
+        requestHandler.setJobExplorer(jobExplorer);
+        requestHandler.setStepLocator(stepLocator);
+        return IntegrationFlow.from(partitionRequests)
+            .handle(requestHandler, "handle")
+            // replies go to the reply channel set on the requests
+            .aggregate(aggregator -> aggregator.processor(partitionHandler, "aggregate"))
+            .get();
+    }
+
+    /**
+     * Splits the ids from 0 to {@code items} into {@code gridSize} ranges of about the
+     * same size.
+     */
+    static class RangePartitioner implements Partitioner {
+
+        private final long items;
+
+        RangePartitioner(long items) {
+            this.items = items;
+        }
+
+        @Override
+        public Map<String, ExecutionContext> partition(int gridSize) {
+            Map<String, ExecutionContext> partitions = new HashMap<>(gridSize);
+            long size = (this.items + gridSize - 1) / gridSize;
+            for (int i = 0; i < gridSize; i++) {
+                ExecutionContext context = new ExecutionContext();
+                context.putLong("min", Math.min(this.items, i * size));
+                context.putLong("max", Math.min(this.items, (i + 1) * size));
+                partitions.put("partition" + i, context);
+            }
+            return partitions;
+        }
+
+    }
+
+}
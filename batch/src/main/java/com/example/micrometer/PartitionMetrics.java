@@ -0,0 +1,102 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per partition metrics of a partitioned step. The {@link #worker()} listener records how
+ * long every partition took as {@code batch.partition} and how many items/sec it wrote as
+ * {@code batch.partition.throughput}, both tagged with the partition. Once all partitions
+ * are done the {@link #manager()} listener sets {@code batch.partition.skew} to the
+ * duration of the slowest partition divided by the mean duration, 1.0 meaning the work
+ * was spread evenly.
+ */
+class PartitionMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Long> startNanos = new ConcurrentHashMap<>();
+
+    // partition durations by job execution
+    private final Map<Long, Queue<Long>> durations = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicReference<Double>> skews = new ConcurrentHashMap<>();
+
+    PartitionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    StepExecutionListener worker() {
+        return new StepExecutionListener() {
+            @Override
+            public void beforeStep(StepExecution stepExecution) {
+                startNanos.put(stepExecution.getId(), System.nanoTime());
+            }
+
+            @Override
+            public ExitStatus afterStep(StepExecution stepExecution) {
+                Long start = startNanos.remove(stepExecution.getId());
+                if (start != null) {
+                    recordPartition(stepExecution, System.nanoTime() - start);
+                }
+                return null;
+            }
+        };
+    }
+
+    StepExecutionListener manager() {
+        return new StepExecutionListener() {
+            @Override
+            public ExitStatus afterStep(StepExecution stepExecution) {
+                Queue<Long> partitions = durations.remove(stepExecution.getJobExecutionId());
+                if (partitions != null && !partitions.isEmpty()) {
+                    double mean = partitions.stream().mapToLong(Long::longValue).average().orElse(0);
+                    long max = partitions.stream().mapToLong(Long::longValue).max().orElse(0);
+                    skew(stepExecution.getStepName()).set(mean > 0 ? max / mean : 1.0);
+                }
+                return null;
+            }
+        };
+    }
+
+    private void recordPartition(StepExecution stepExecution, long nanos) {
+        String stepName = stepExecution.getStepName();
+        // partitions are named <worker step>:<partition>
+        String partition = stepName.substring(stepName.indexOf(':') + 1);
+        Timer.builder("batch.partition")
+            .tag("partition", partition)
+            .register(this.meterRegistry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("batch.partition.throughput")
+            .baseUnit("items/s")
+            .tag("partition", partition)
+            .register(this.meterRegistry)
+            .record(stepExecution.getWriteCount() / (nanos / 1e9));
+        this.durations.computeIfAbsent(stepExecution.getJobExecutionId(), id -> new ConcurrentLinkedQueue<>())
+            .add(nanos);
+    }
+
+    private AtomicReference<Double> skew(String stepName) {
+        return this.skews.computeIfAbsent(stepName, name -> {
+            AtomicReference<Double> skew = new AtomicReference<>(1.0);
+            Gauge.builder("batch.partition.skew", skew, AtomicReference::get)
+                .description("Duration of the slowest partition divided by the mean duration")
+                .tag("step", name)
+                .register(this.meterRegistry);
+            return skew;
+        });
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@SpringBootTest(properties = "spring.batch.job.enabled=false")
+class ChunkBenchmarkTests {
+
+    @Autowired
+    JobLauncher jobLauncher;
+
+    @Autowired
+    ChunkJobs chunkJobs;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_write_every_item_once_with_several_threads() throws Exception {
+        ChunkBenchmark benchmark = new ChunkBenchmark(this.jobLauncher, this.chunkJobs, this.meterRegistry, 10_000,
+                List.of(100), List.of(4));
+
+        ChunkBenchmark.Result result = benchmark.measure(10_000, 100, 4);
+
+        then(result.written()).isEqualTo(10_000);
+        then(result.chunks()).isGreaterThanOrEqualTo(100);
+        then(result.repositoryCalls()).isPositive();
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("batch.chunk")
+            .hasTimerWithName("batch.job-repository")
+            .hasTimerWithNameAndTags("batch.job-repository", Tags.of("method", "createJobExecution"));
+    }
+
+}
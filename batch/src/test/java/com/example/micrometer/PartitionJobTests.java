@@ -0,0 +1,110 @@
+package com.example.micrometer;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@SpringBootTest(properties = { "spring.batch.job.enabled=false", "partition-job.items=10000",
+        "partition-job.chunk-size=100", "partition-job.grid-size=4" })
+class PartitionJobTests {
+
+    @Autowired
+    JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("partitionJob")
+    Job partitionJob;
+
+    @Autowired
+    @Qualifier("remotePartitionJob")
+    Job remotePartitionJob;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    FinishedSpans spans;
+
+    @BeforeEach
+    void clearSpans() {
+        this.spans.spans.clear();
+    }
+
+    @Test
+    void should_process_every_partition_on_local_threads_within_one_trace() throws Exception {
+        JobExecution execution = run(this.partitionJob);
+
+        thenAllItemsWereWrittenWithinOneTrace(execution);
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithNameAndTags("batch.partition", Tags.of("partition", "partition0"));
+    }
+
+    @Test
+    void should_process_every_partition_through_the_message_channel_within_one_trace() throws Exception {
+        JobExecution execution = run(this.remotePartitionJob);
+
+        thenAllItemsWereWrittenWithinOneTrace(execution);
+        then(this.meterRegistry.get("batch.partition.skew").tag("step", "remotePartitionManager").gauge().value())
+            .isGreaterThanOrEqualTo(1.0);
+    }
+
+    private JobExecution run(Job job) throws Exception {
+        return this.jobLauncher.run(job,
+                new JobParametersBuilder().addLong("run", System.nanoTime()).toJobParameters());
+    }
+
+    private void thenAllItemsWereWrittenWithinOneTrace(JobExecution execution) {
+        then(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // the manager step's write count is the sum of its partitions
+        StepExecution manager = execution.getStepExecutions().iterator().next();
+        then(manager.getWriteCount()).isEqualTo(10000);
+        then(this.spans.spans).extracting(MutableSpan::name).contains("batch.chunk");
+        then(this.spans.spans).extracting(MutableSpan::traceId).containsOnly(this.spans.spans.get(0).traceId());
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SpansConfig {
+
+        @Bean
+        FinishedSpans finishedSpans() {
+            return new FinishedSpans();
+        }
+
+    }
+
+    static class FinishedSpans extends SpanHandler {
+
+        final List<MutableSpan> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+            this.spans.add(span);
+            return true;
+        }
+
+    }
+
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -17,6 +18,7 @@ import org.springframework.cloud.bus.jackson.RemoteApplicationEventScan;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.RestController;
 
 @SpringBootApplication
@@ -29,8 +31,14 @@ public class BusApplication implements CommandLineRunner {
     @Autowired
     MyEventService myEventService;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         this.myEventService.publish();
     }
 
@@ -0,0 +1,104 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@code benchmark.events} load events at each of the {@code benchmark.rates}
+ * (events/sec, 0 publishes as fast as possible) and logs how many events per second got
+ * published and received by this instance, the publish-to-receive latency and how many
+ * events did not arrive within {@code benchmark.timeout}. Every other instance on the bus
+ * receives the same events and logs its own numbers from time to time. Start it with
+ * {@code benchmark=fanout}, usually together with the {@code fanout} profile, against a
+ * running RabbitMQ broker.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "fanout")
+class FanOutBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(FanOutBenchmark.class);
+
+    private final LoadEventPublisher publisher;
+
+    private final LoadEventListener listener;
+
+    private final int events;
+
+    private final List<Integer> rates;
+
+    private final Duration timeout;
+
+    FanOutBenchmark(LoadEventPublisher publisher, LoadEventListener listener,
+            @Value("${benchmark.events:100000}") int events,
+            @Value("${benchmark.rates:1000,10000,0}") List<Integer> rates,
+            @Value("${benchmark.timeout:30s}") Duration timeout) {
+        this.publisher = publisher;
+        this.listener = listener;
+        this.events = events;
+        this.rates = rates;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        log.info("Fan-out benchmark, {} events per run, rates {}", this.events, this.rates);
+        // warm up the binding and JIT, those numbers are not reported
+        measure(Math.max(1, this.events / 10), 0);
+        log.info(String.format("%10s %12s %12s %10s %10s %10s", "rate", "sent/s", "received/s", "p50 ms", "p99 ms",
+                "lost"));
+        for (int rate : this.rates) {
+            Result result = measure(this.events, rate);
+            log.info(String.format("%10s %12.1f %12.1f %10.2f %10.2f %10d", rate > 0 ? rate : "max",
+                    result.sentPerSecond(), result.receivedPerSecond(), result.latencyP50(), result.latencyP99(),
+                    result.lost()));
+        }
+    }
+
+    Result measure(int count, int rate) throws InterruptedException {
+        Timer latency = Timer.builder("benchmark.latency")
+            .publishPercentiles(0.5, 0.99)
+            .register(new SimpleMeterRegistry());
+        long receivedBefore = this.listener.received();
+        this.listener.recordTo(latency);
+        try {
+            long start = System.nanoTime();
+            this.publisher.publish(count, rate);
+            long sentNanos = System.nanoTime() - start;
+            long deadline = System.nanoTime() + this.timeout.toNanos();
+            while (this.listener.received() - receivedBefore < count && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            long receivedNanos = System.nanoTime() - start;
+            long received = this.listener.received() - receivedBefore;
+            return new Result(count / (sentNanos / 1e9), received / (receivedNanos / 1e9), percentile(latency, 0.5),
+                    percentile(latency, 0.99), Math.max(0, count - received));
+        }
+        finally {
+            this.listener.recordTo(null);
+        }
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    record Result(double sentPerSecond, double receivedPerSecond, double latencyP50, double latencyP99, long lost) {
+    }
+
+}
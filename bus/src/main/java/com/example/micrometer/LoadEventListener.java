@@ -0,0 +1,85 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.event.LoadEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receives the {@link LoadEvent}s of any instance and records the time from publishing to
+ * receiving them as {@code bus.event.latency}. This compares the wall clocks of both
+ * instances, so it is only accurate when they are in sync. Events that carry a trace
+ * context are handled within a {@code bus.receive} observation that continues the trace
+ * of the publisher.
+ */
+@Component
+class LoadEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadEventListener.class);
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Timer latency;
+
+    private final long logEvery;
+
+    private final LongAdder received = new LongAdder();
+
+    private volatile Timer runLatency;
+
+    LoadEventListener(ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            @Value("${bus-load.log-every:10000}") long logEvery) {
+        this.observationRegistry = observationRegistry;
+        this.latency = Timer.builder("bus.event.latency")
+            .description("Time from publishing a load event to receiving it")
+            .register(meterRegistry);
+        this.logEvery = logEvery;
+    }
+
+    @EventListener
+    void onLoadEvent(LoadEvent event) {
+        long latencyMicros = LoadEventPublisher.nowMicros() - event.getSentAtMicros();
+        this.latency.record(latencyMicros, TimeUnit.MICROSECONDS);
+        Timer runLatency = this.runLatency;
+        if (runLatency != null) {
+            runLatency.record(latencyMicros, TimeUnit.MICROSECONDS);
+        }
+        this.received.increment();
+        if (!event.getTraceContext().isEmpty()) {
+            ReceiverContext<Map<String, String>> context = new ReceiverContext<>(Map::get);
+            context.setCarrier(event.getTraceContext());
+            Observation.createNotStarted("bus.receive", () -> context, this.observationRegistry)
+                .highCardinalityKeyValue("sequence", String.valueOf(event.getSequence()))
+                .observe(() -> log.info("Received load event [{}] from [{}] after [{}] us", event.getSequence(),
+                        event.getOriginService(), latencyMicros));
+        }
+        if (this.logEvery > 0 && this.received.sum() % this.logEvery == 0) {
+            log.info("Received {} load events, mean latency [{}] ms, max [{}] ms", this.received.sum(),
+                    this.latency.mean(TimeUnit.MILLISECONDS), this.latency.max(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    long received() {
+        return this.received.sum();
+    }
+
+    /**
+     * Records the latency of the events received from now on to the given timer as well,
+     * {@code null} stops doing so.
+     */
+    void recordTo(Timer runLatency) {
+        this.runLatency = runLatency;
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.SenderContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.bus.BusConstants;
+import org.springframework.cloud.bus.BusProperties;
+import org.springframework.cloud.bus.event.LoadEvent;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes {@link LoadEvent}s straight to the bus destination from a pool of
+ * {@code bus-load.publishers} threads, instead of one by one on the caller's thread like
+ * {@link org.springframework.context.ApplicationEventPublisher#publishEvent} does for
+ * remote events. The events claim to originate from {@code <bus id>:load}, so that every
+ * instance, this one included, treats them as remote events and hands them to its
+ * listeners. Only every {@code bus-load.trace-every}-th event is sent within a
+ * {@code bus.publish} observation and carries its trace context, {@code 0} sends none of
+ * them within an observation. Whether the events are batched on the wire is up to the
+ * binder, see the {@code fanout} profile.
+ */
+@Component
+class LoadEventPublisher implements DisposableBean {
+
+    private final StreamBridge streamBridge;
+
+    private final BusProperties bus;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final ExecutorService publishers;
+
+    private final int publisherCount;
+
+    private final int traceEvery;
+
+    LoadEventPublisher(StreamBridge streamBridge, BusProperties bus, ObservationRegistry observationRegistry,
+            @Value("${bus-load.publishers:4}") int publishers, @Value("${bus-load.trace-every:1000}") int traceEvery) {
+        this.streamBridge = streamBridge;
+        this.bus = bus;
+        this.observationRegistry = observationRegistry;
+        this.publishers = Executors.newFixedThreadPool(publishers, new PublisherThreadFactory());
+        this.publisherCount = publishers;
+        this.traceEvery = traceEvery;
+    }
+
+    /**
+     * Publishes {@code count} events, spread evenly over time when {@code rate} is
+     * positive, and waits until all of them were handed over to the binder.
+     */
+    void publish(int count, int rate) {
+        long start = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[this.publisherCount];
+        for (int publisher = 0; publisher < this.publisherCount; publisher++) {
+            int first = publisher;
+            futures[publisher] = CompletableFuture.runAsync(() -> {
+                for (int sequence = first; sequence < count; sequence += this.publisherCount) {
+                    if (rate > 0) {
+                        long due = start + TimeUnit.SECONDS.toNanos(sequence) / rate;
+                        LockSupport.parkNanos(due - System.nanoTime());
+                    }
+                    publish(sequence);
+                }
+            }, this.publishers);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private void publish(long sequence) {
+        LoadEvent event = new LoadEvent(this, this.bus.getId() + ":load", sequence, nowMicros());
+        if (this.traceEvery <= 0 || sequence % this.traceEvery != 0) {
+            send(event);
+            return;
+        }
+        SenderContext<Map<String, String>> context = new SenderContext<>(Map::put);
+        context.setCarrier(event.getTraceContext());
+        Observation.createNotStarted("bus.publish", () -> context, this.observationRegistry)
+            .highCardinalityKeyValue("sequence", String.valueOf(sequence))
+            .observe(() -> send(event));
+    }
+
+    private void send(LoadEvent event) {
+        this.streamBridge.send(BusConstants.OUTPUT, MessageBuilder.withPayload(event).build());
+    }
+
+    @Override
+    public void destroy() {
+        this.publishers.shutdownNow();
+    }
+
+    static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    private static class PublisherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "bus-publisher-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package org.springframework.cloud.bus.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Event sent at a high rate to see how far the bus scales. Besides its sequence number it
+ * carries the wall clock time it was sent at and, when the publisher observed the send,
+ * the trace context of that observation, since the bus only hands the event itself to the
+ * listeners, not the headers of the message it arrived in.
+ */
+public class LoadEvent extends RemoteApplicationEvent {
+
+    private final long sequence;
+
+    private final long sentAtMicros;
+
+    private final Map<String, String> traceContext;
+
+    public LoadEvent(Object source, String originService, long sequence, long sentAtMicros) {
+        super(source, originService);
+        this.sequence = sequence;
+        this.sentAtMicros = sentAtMicros;
+        this.traceContext = new HashMap<>();
+    }
+
+    private LoadEvent() {
+        this.sequence = 0;
+        this.sentAtMicros = 0;
+        this.traceContext = new HashMap<>();
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public long getSentAtMicros() {
+        return this.sentAtMicros;
+    }
+
+    public Map<String, String> getTraceContext() {
+        return this.traceContext;
+    }
+
+}
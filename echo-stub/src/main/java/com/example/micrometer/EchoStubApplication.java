@@ -0,0 +1,46 @@
+package com.example.micrometer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Local stand-in for the HTTP services the samples call, so that throughput benchmarks
+ * run on one machine without internet latency in the hot path. {@code POST /echo} sends
+ * the request body back (the {@code webclient} default target) and every {@code GET},
+ * e.g. {@code /api/users} called by {@code grpc-server}, returns a generated body of
+ * {@code stub.payload-size} bytes. Latency and error rate are configured through the
+ * {@code stub.*} properties.
+ */
+@SpringBootApplication
+public class EchoStubApplication {
+
+    private static final Logger log = LoggerFactory.getLogger(EchoStubApplication.class);
+
+    public static void main(String... args) {
+        new SpringApplicationBuilder(EchoStubApplication.class).web(WebApplicationType.NONE).run(args);
+    }
+
+    @Bean(destroyMethod = "disposeNow")
+    DisposableServer echoStubServer(StubResponder responder, @Value("${stub.port:3000}") int port) {
+        DisposableServer server = HttpServer.create()
+            .port(port)
+            .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+            .route(routes -> routes.post("/echo", responder::echo)
+                .route(request -> request.method().name().equals("GET"), responder::payload))
+            .bindNow();
+        log.info("Echo stub listening on port={}", server.port());
+        // Netty event loop threads are daemons, keep the JVM running until the server is
+        // disposed
+        new Thread(() -> server.onDispose().block(), "echo-stub").start();
+        return server;
+    }
+
+}
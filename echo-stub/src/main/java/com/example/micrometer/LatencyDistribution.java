@@ -0,0 +1,72 @@
+package com.example.micrometer;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Shapes of the artificial latency added by the stub. Every distribution is parameterized
+ * by its mean so that switching the shape keeps the average load comparable, only the
+ * tail changes.
+ */
+enum LatencyDistribution {
+
+    /**
+     * Always the mean.
+     */
+    FIXED {
+        @Override
+        double sample(double mean, RandomGenerator random) {
+            return mean;
+        }
+    },
+
+    /**
+     * Uniform between zero and twice the mean.
+     */
+    UNIFORM {
+        @Override
+        double sample(double mean, RandomGenerator random) {
+            return random.nextDouble(2 * mean);
+        }
+    },
+
+    /**
+     * Exponential, i.e. mostly fast with an occasional slow response.
+     */
+    EXPONENTIAL {
+        @Override
+        double sample(double mean, RandomGenerator random) {
+            return random.nextExponential() * mean;
+        }
+    },
+
+    /**
+     * Log-normal with a shape of 1, the long tail typically seen for remote services.
+     */
+    LOG_NORMAL {
+        @Override
+        double sample(double mean, RandomGenerator random) {
+            // mean = exp(mu + sigma^2 / 2) with sigma = 1
+            return Math.exp(Math.log(mean) - 0.5 + random.nextGaussian());
+        }
+    };
+
+    abstract double sample(double mean, RandomGenerator random);
+
+    /**
+     * @return the next latency, never longer than {@code max}
+     */
+    Duration next(Duration mean, Duration max, RandomGenerator random) {
+        if (mean.isZero() || mean.isNegative()) {
+            return Duration.ZERO;
+        }
+        long nanos = (long) sample(mean.toNanos(), random);
+        return Duration.ofNanos(Math.min(nanos, max.toNanos()));
+    }
+
+    static LatencyDistribution fromName(String name) {
+        return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+}
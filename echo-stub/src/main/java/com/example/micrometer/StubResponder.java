@@ -0,0 +1,71 @@
+package com.example.micrometer;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Answers the stub requests after a delay drawn from the configured
+ * {@link LatencyDistribution}, failing the configured fraction of them. The delay is a
+ * timer, not a sleep, so the event loop keeps serving other requests meanwhile.
+ */
+@Component
+class StubResponder {
+
+    private static final String FILLER = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private final LatencyDistribution distribution;
+
+    private final Duration mean;
+
+    private final Duration max;
+
+    private final double errorRate;
+
+    private final HttpResponseStatus errorStatus;
+
+    private final byte[] payload;
+
+    StubResponder(@Value("${stub.latency.distribution:fixed}") String distribution,
+            @Value("${stub.latency.mean:0ms}") Duration mean, @Value("${stub.latency.max:5s}") Duration max,
+            @Value("${stub.error-rate:0.0}") double errorRate, @Value("${stub.error-status:503}") int errorStatus,
+            @Value("${stub.payload-size:512}") int payloadSize) {
+        this.distribution = LatencyDistribution.fromName(distribution);
+        this.mean = mean;
+        this.max = max;
+        this.errorRate = errorRate;
+        this.errorStatus = HttpResponseStatus.valueOf(errorStatus);
+        this.payload = FILLER.repeat(payloadSize / FILLER.length() + 1)
+            .substring(0, payloadSize)
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    Publisher<Void> echo(HttpServerRequest request, HttpServerResponse response) {
+        return respond(response, request.receive().aggregate().asByteArray().defaultIfEmpty(new byte[0]));
+    }
+
+    Publisher<Void> payload(HttpServerRequest request, HttpServerResponse response) {
+        return respond(response, Mono.just(this.payload));
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, Mono<byte[]> body) {
+        RandomGenerator random = ThreadLocalRandom.current();
+        Duration delay = this.distribution.next(this.mean, this.max, random);
+        Mono<byte[]> delayed = delay.isZero() ? body : body.delayElement(delay);
+        if (this.errorRate > 0 && random.nextDouble() < this.errorRate) {
+            return delayed.then(Mono.defer(() -> response.status(this.errorStatus).send()));
+        }
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "text/plain").sendByteArray(delayed).then();
+    }
+
+}
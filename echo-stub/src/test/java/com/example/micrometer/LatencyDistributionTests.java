@@ -0,0 +1,48 @@
+package com.example.micrometer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.within;
+
+class LatencyDistributionTests {
+
+    private static final Duration MEAN = Duration.ofMillis(10);
+
+    @ParameterizedTest
+    @EnumSource(LatencyDistribution.class)
+    void should_keep_the_configured_mean(LatencyDistribution distribution) {
+        SplittableRandom random = new SplittableRandom(42);
+
+        double average = IntStream.range(0, 100_000)
+            .mapToLong(i -> distribution.next(MEAN, Duration.ofMinutes(1), random).toNanos())
+            .average()
+            .orElseThrow();
+
+        then(average).isCloseTo(MEAN.toNanos(), within(MEAN.toNanos() * 0.05));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LatencyDistribution.class)
+    void should_never_exceed_max(LatencyDistribution distribution) {
+        SplittableRandom random = new SplittableRandom(42);
+        Duration max = Duration.ofMillis(15);
+
+        IntStream.range(0, 10_000).forEach(i -> then(distribution.next(MEAN, max, random)).isLessThanOrEqualTo(max));
+    }
+
+    @Test
+    void should_parse_property_names() {
+        then(LatencyDistribution.fromName("log-normal")).isSameAs(LatencyDistribution.LOG_NORMAL);
+        then(LatencyDistribution.fromName(" Exponential ")).isSameAs(LatencyDistribution.EXPONENTIAL);
+        then(LatencyDistribution.UNIFORM.next(Duration.ZERO, Duration.ofSeconds(1), new SplittableRandom()))
+            .isEqualTo(Duration.ZERO);
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the uncached {@code /load/0/**} route with the cached {@code /load/cache/**}
+ * route. Sends {@code benchmark.requests} GET requests with {@code benchmark.concurrency}
+ * in flight, spread over {@code benchmark.keys} paths, to each route and logs
+ * requests/sec, p50 and p99 latency, the share of cache hits, how many misses were
+ * coalesced and how many requests reached the upstream. Every run starts with an empty
+ * cache, so the first requests of each path show the coalescing. Start it with
+ * {@code benchmark=cache} together with {@code upstream.enabled=true} and an
+ * {@code upstream.delay}, e.g. {@code 20ms}, so that there is something to save.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "cache")
+class CacheBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheBenchmark.class);
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int requests;
+
+    private final int concurrency;
+
+    private final int keys;
+
+    // gives every run its own paths, so that none of them starts with a warm cache
+    private final AtomicInteger runs = new AtomicInteger();
+
+    CacheBenchmark(Environment environment, MeterRegistry meterRegistry,
+            @Value("${benchmark.requests:20000}") int requests, @Value("${benchmark.concurrency:64}") int concurrency,
+            @Value("${benchmark.keys:16}") int keys) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.keys = keys;
+    }
+
+    @Override
+    public void run(String... args) {
+        ConnectionProvider provider = ConnectionProvider.builder("cache-benchmark")
+            .maxConnections(this.concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://localhost:" + this.environment.getProperty("local.server.port"))
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+            .build();
+        try {
+            log.info("Cache benchmark, {} requests per route over {} keys, concurrency {}", this.requests, this.keys,
+                    this.concurrency);
+            // warm up connections and JIT, those numbers are not reported
+            measure(webClient, "0", Math.max(this.concurrency, this.requests / 10));
+            measure(webClient, "cache", Math.max(this.concurrency, this.requests / 10));
+            log.info(String.format("%8s %10s %10s %10s %8s %10s %10s", "route", "req/s", "p50 ms", "p99 ms", "hit %",
+                    "coalesced", "upstream"));
+            for (String route : new String[] { "0", "cache" }) {
+                Result result = measure(webClient, route, this.requests);
+                log.info(String.format("%8s %10.1f %10.2f %10.2f %8.1f %10d %10d", route, result.requestsPerSecond(),
+                        result.latencyP50(), result.latencyP99(), result.hitShare() * 100, result.coalesced(),
+                        result.upstream()));
+            }
+        }
+        finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    Result measure(WebClient webClient, String route, int count) {
+        Timer latency = Timer.builder("benchmark.latency")
+            .publishPercentiles(0.5, 0.99)
+            .register(new SimpleMeterRegistry());
+        LongAdder failed = new LongAdder();
+        int run = this.runs.incrementAndGet();
+        long hitsBefore = lookups("hit");
+        long missesBefore = lookups("miss");
+        long coalescedBefore = lookups("coalesced");
+        long start = System.nanoTime();
+        Flux.range(0, count).flatMap(i -> {
+            long sent = System.nanoTime();
+            return webClient.get()
+                .uri("/load/{route}/run-{run}/item-{key}", route, run, i % this.keys)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .doOnNext(status -> {
+                    latency.record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                    if (status.isError()) {
+                        failed.increment();
+                    }
+                })
+                .onErrorResume(ex -> {
+                    failed.increment();
+                    return Mono.empty();
+                });
+        }, this.concurrency).blockLast();
+        long wallNanos = System.nanoTime() - start;
+        if (failed.sum() > 0) {
+            log.warn("{} requests to route {} failed", failed.sum(), route);
+        }
+        long hits = lookups("hit") - hitsBefore;
+        long misses = lookups("miss") - missesBefore;
+        long coalesced = lookups("coalesced") - coalescedBefore;
+        boolean cached = hits + misses + coalesced > 0;
+        return new Result(count / (wallNanos / 1e9), ThroughputBenchmark.percentile(latency, 0.5),
+                ThroughputBenchmark.percentile(latency, 0.99), (double) hits / count, coalesced,
+                cached ? misses : count);
+    }
+
+    private long lookups(String outcome) {
+        return this.meterRegistry.find("gateway.cache")
+            .tag("outcome", outcome)
+            .timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    record Result(double requestsPerSecond, double latencyP50, double latencyP99, double hitShare, long coalesced,
+            long upstream) {
+    }
+
+}
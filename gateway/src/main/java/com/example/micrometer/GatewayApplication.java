@@ -1,7 +1,8 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.Observation;
-import io.micrometer.tracing.Tracer;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,14 +10,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @SpringBootApplication
 public class GatewayApplication implements CommandLineRunner {
 
@@ -27,27 +33,50 @@ public class GatewayApplication implements CommandLineRunner {
     }
 
     @Bean
-    RouteLocator myRouteLocator(RouteLocatorBuilder builder, Tracer tracer,
-            @Value("${url:http://localhost:7100}") String url) {
-        return builder.routes()
-            .route("mvc_route",
-                    route -> route.path("/mvc/**").filters(f -> f.stripPrefix(1).filter((exchange, chain) -> {
-                        Observation gatewayObservation = exchange
-                            .getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_OBSERVATION_ATTR);
-                        gatewayObservation.scoped(() -> {
-                            String traceId = tracer.currentSpan().context().traceId();
-                            log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer", traceId);
-                        });
-                        return chain.filter(exchange);
-                    }, Ordered.LOWEST_PRECEDENCE)).uri(url))
-            .build();
+    ResponseCache responseCache(MeterRegistry meterRegistry, @Value("${cache.max-size:64MB}") DataSize maxSize,
+            @Value("${cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        return new ResponseCache(maxSize.toBytes(), maxEntrySize.toBytes(), meterRegistry);
+    }
+
+    /**
+     * The response cache of {@code mvc_route} is off unless
+     * {@code cache.mvc-route.enabled=true}. It has to run before the response is written,
+     * so it answers hits before the filter that logs the acceptance test line, which is
+     * then only logged for misses.
+     */
+    @Bean
+    RouteLocator myRouteLocator(RouteLocatorBuilder builder, ResponseCache responseCache,
+            ObservationRegistry observationRegistry, @Value("${url:http://localhost:7100}") String url,
+            @Value("${cache.time-to-live:10s}") Duration timeToLive,
+            @Value("${cache.mvc-route.enabled:false}") boolean cacheEnabled) {
+        GatewayFilter cache = new ResponseCacheFilter("mvc_route", responseCache, timeToLive, observationRegistry);
+        return builder.routes().route("mvc_route", route -> route.path("/mvc/**").filters(f -> {
+            f.stripPrefix(1);
+            if (cacheEnabled) {
+                f.filter(cache);
+            }
+            return f.filter((exchange, chain) -> {
+                Observation gatewayObservation = exchange
+                    .getRequiredAttribute(ServerWebExchangeUtils.GATEWAY_OBSERVATION_ATTR);
+                // no need to open a scope just to read the trace id
+                String traceId = ReactiveTraceContext.traceId(gatewayObservation);
+                log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer", traceId);
+                return chain.filter(exchange);
+            }, Ordered.LOWEST_PRECEDENCE);
+        }).uri(url)).build();
     }
 
     @Autowired
     Environment environment;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         try {
             new RestTemplate().getForObject("http://localhost:" + environment.getProperty("server.port") + "/mvc/",
                     String.class);
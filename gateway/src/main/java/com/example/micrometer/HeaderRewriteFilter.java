@@ -0,0 +1,44 @@
+package com.example.micrometer;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rewrites the headers of a proxied request the way an edge gateway usually does: the
+ * internal headers a client must not be able to set are dropped, the trace id is passed
+ * on as {@code X-Request-Id} in both directions and the response no longer tells which
+ * server produced it.
+ */
+class HeaderRewriteFilter implements GatewayFilter {
+
+    static final String REQUEST_ID = "X-Request-Id";
+
+    private static final String INTERNAL_PREFIX = "X-Internal-";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return ReactiveTraceContext.traceId().defaultIfEmpty("").flatMap(traceId -> {
+            ServerHttpRequest request = exchange.getRequest().mutate().headers(headers -> {
+                headers.keySet()
+                    .removeIf(name -> name.regionMatches(true, 0, INTERNAL_PREFIX, 0, INTERNAL_PREFIX.length()));
+                if (!traceId.isEmpty()) {
+                    headers.set(REQUEST_ID, traceId);
+                }
+            }).build();
+            exchange.getResponse().beforeCommit(() -> {
+                HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.remove(HttpHeaders.SERVER);
+                if (!traceId.isEmpty()) {
+                    headers.set(REQUEST_ID, traceId);
+                }
+                return Mono.empty();
+            });
+            return chain.filter(exchange.mutate().request(request).build());
+        });
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.micrometer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Switches the gateway to cleartext HTTP/2 (h2c) on both sides when started with
+ * {@code gateway.protocol=h2c}: the server keeps accepting HTTP/1.1 next to h2c and the
+ * routes are proxied over a few multiplexed connections instead of one connection per
+ * in-flight request. The downstream service has to speak h2c with prior knowledge.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "gateway.protocol", havingValue = "h2c")
+class Http2TransportConfiguration {
+
+    @Bean
+    NettyServerCustomizer h2cServerCustomizer() {
+        return server -> server.protocol(HttpProtocol.HTTP11, HttpProtocol.H2C);
+    }
+
+    @Bean
+    HttpClientCustomizer h2cHttpClientCustomizer() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C);
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Routes used by the throughput benchmark. Each {@code /load/<stage>/**} route proxies to
+ * {@code load.url} with one more filter than the stage before it, so that the cost of a
+ * filter shows up as the difference between two stages:
+ * <ol start="0">
+ * <li>no filters apart from stripping the prefix</li>
+ * <li>header rewrite</li>
+ * <li>header rewrite and rate limiting per client</li>
+ * <li>header rewrite, rate limiting and a retry of {@code 503} responses</li>
+ * </ol>
+ * {@code /load/cache/**} proxies to the same upstream through the response cache only.
+ * All of these filters read the trace context from the Reactor context and none of them
+ * opens an observation scope.
+ */
+@Configuration(proxyBeanMethods = false)
+class LoadRoutesConfiguration {
+
+    @Bean
+    TokenBucketRateLimiter loadRateLimiter(
+            @Value("${load.rate-limit.permits-per-second:1000000}") double permitsPerSecond,
+            @Value("${load.rate-limit.burst:0}") long burst, @Value("${load.rate-limit.stripes:4}") int stripes,
+            @Value("${load.rate-limit.max-keys:100000}") int maxKeys) {
+        return new TokenBucketRateLimiter(permitsPerSecond, burst > 0 ? burst : (long) Math.ceil(permitsPerSecond),
+                stripes, maxKeys);
+    }
+
+    @Bean
+    RouteLocator loadRouteLocator(RouteLocatorBuilder builder, MeterRegistry meterRegistry,
+            ObservationRegistry observationRegistry, TokenBucketRateLimiter loadRateLimiter,
+            ResponseCache responseCache, @Value("${load.url:http://localhost:7200}") String url,
+            @Value("${load.rate-limit.trusted-proxies:}") List<String> trustedProxies,
+            @Value("${load.retry.retries:2}") int retries, @Value("${cache.time-to-live:10s}") Duration timeToLive) {
+        GatewayFilter headerRewrite = new TimedGatewayFilter("header-rewrite", new HeaderRewriteFilter(),
+                meterRegistry);
+        return builder.routes()
+            .route("load_0", route -> route.path("/load/0/**").filters(f -> f.stripPrefix(2)).uri(url))
+            .route("load_1",
+                    route -> route.path("/load/1/**").filters(f -> f.stripPrefix(2).filter(headerRewrite)).uri(url))
+            .route("load_2",
+                    route -> route.path("/load/2/**")
+                        .filters(
+                                f -> f.stripPrefix(2)
+                                    .filter(headerRewrite)
+                                    .filter(new TimedGatewayFilter("rate-limit",
+                                            new RateLimitFilter("load_2", loadRateLimiter, trustedProxies,
+                                                    meterRegistry),
+                                            meterRegistry)))
+                        .uri(url))
+            .route("load_3",
+                    route -> route.path("/load/3/**")
+                        .filters(
+                                f -> f.stripPrefix(2)
+                                    .filter(headerRewrite)
+                                    .filter(new TimedGatewayFilter("rate-limit",
+                                            new RateLimitFilter("load_3", loadRateLimiter, trustedProxies,
+                                                    meterRegistry),
+                                            meterRegistry))
+                                    .retry(retry -> retry.setRetries(retries)
+                                        .setSeries()
+                                        .setStatuses(HttpStatus.SERVICE_UNAVAILABLE)
+                                        .setMethods(HttpMethod.GET)))
+                        .uri(url))
+            .route("load_cache", route -> route.path("/load/cache/**")
+                .filters(f -> f.stripPrefix(2)
+                    .filter(new ResponseCacheFilter("load_cache", responseCache, timeToLive, observationRegistry)))
+                .uri(url))
+            .build();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.micrometer;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local upstream for the load routes, so that the throughput benchmark does not depend on
+ * anything running outside this JVM. Enable it with {@code upstream.enabled=true}. Every
+ * request is answered with {@code upstream.body-size} bytes after {@code upstream.delay};
+ * {@code upstream.failure-rate} of the requests get a {@code 503} instead, which is what
+ * the retry of the last load stage retries.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "upstream.enabled", havingValue = "true")
+class LocalUpstream {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalUpstream.class);
+
+    @Bean(destroyMethod = "disposeNow")
+    DisposableServer upstreamServer(@Value("${upstream.port:7200}") int port,
+            @Value("${upstream.body-size:256}") int bodySize, @Value("${upstream.delay:0ms}") Duration delay,
+            @Value("${upstream.failure-rate:0}") double failureRate) {
+        byte[] body = "x".repeat(bodySize).getBytes(StandardCharsets.UTF_8);
+        DisposableServer server = HttpServer.create().port(port).handle((request, response) -> {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+            }
+            Mono<byte[]> content = delay.isZero() ? Mono.just(body) : Mono.just(body).delayElement(delay);
+            return response.header(HttpHeaderNames.CONTENT_TYPE, "text/plain").sendByteArray(content);
+        }).bindNow();
+        log.info("Upstream listening on port={}", server.port());
+        return server;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admits the requests of a route through the token bucket of the client that sent them
+ * and answers the others with {@code 429 Too Many Requests} and a {@code Retry-After}
+ * header. The client is the remote address, unless that is one of the trusted proxies.
+ * Then the {@code X-Forwarded-For} addresses are followed from the last one back, past
+ * every trusted proxy, since any other client can put whatever it likes into that header
+ * and thus get a bucket of its own for every request. Requests are counted as
+ * {@code gateway.rate-limit.requests}, tagged with the route and the outcome, and a
+ * rejection is signalled as an event of the observation of the request, found in the
+ * Reactor context.
+ */
+class RateLimitFilter implements GatewayFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final Observation.Event REJECTED = Observation.Event.of("rate-limit.rejected",
+            "Request rejected by the rate limiter");
+
+    private final String routeId;
+
+    private final TokenBucketRateLimiter limiter;
+
+    private final Set<String> trustedProxies;
+
+    private final Counter allowed;
+
+    private final Counter rejected;
+
+    RateLimitFilter(String routeId, TokenBucketRateLimiter limiter, Collection<String> trustedProxies,
+            MeterRegistry meterRegistry) {
+        this.routeId = routeId;
+        this.limiter = limiter;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.allowed = counter(meterRegistry, routeId, "allowed");
+        this.rejected = counter(meterRegistry, routeId, "rejected");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long waitNanos = this.limiter.tryAcquire(this.routeId + ':' + client(exchange.getRequest()));
+        if (waitNanos == 0) {
+            this.allowed.increment();
+            return chain.filter(exchange);
+        }
+        this.rejected.increment();
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfterSeconds = (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return ReactiveTraceContext.observation().doOnNext(observation -> {
+            observation.event(REJECTED);
+            if (log.isDebugEnabled()) {
+                log.debug("Rejected request of trace [{}]", ReactiveTraceContext.traceId(observation));
+            }
+        }).then(exchange.getResponse().setComplete());
+    }
+
+    String client(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        if (remoteAddress == null) {
+            return "unknown";
+        }
+        String client = remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress()
+                : remoteAddress.getHostString();
+        List<String> forwardedFor = request.getHeaders().getValuesAsList("X-Forwarded-For");
+        for (int i = forwardedFor.size() - 1; i >= 0 && this.trustedProxies.contains(client); i--) {
+            client = forwardedFor.get(i);
+        }
+        return client;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String routeId, String outcome) {
+        return Counter.builder("gateway.rate-limit.requests")
+            .description("Requests admitted or rejected by the rate limiter")
+            .tag("route", routeId)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.example.micrometer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures what the token bucket rate limiter costs per request when many threads hit it
+ * at once. For every combination of {@code benchmark.stripes} and
+ * {@code benchmark.threads} each thread takes {@code benchmark.operations} tokens for one
+ * of {@code benchmark.keys} keys, and the time per operation as seen by a thread,
+ * operations/sec and the share of admitted requests are logged. With a single key all
+ * threads compete for the same bucket, which is where the stripes matter. The rate is
+ * {@code benchmark.permits-per-second}, high enough by default that the cost of admitting
+ * requests is measured. Start it with {@code benchmark=rate-limiter}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "rate-limiter")
+class RateLimiterBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiterBenchmark.class);
+
+    private final List<Integer> stripes;
+
+    private final List<Integer> threads;
+
+    private final int operations;
+
+    private final int keys;
+
+    private final double permitsPerSecond;
+
+    RateLimiterBenchmark(@Value("${benchmark.stripes:1,4,16}") List<Integer> stripes,
+            @Value("${benchmark.threads:1,4,16,64}") List<Integer> threads,
+            @Value("${benchmark.operations:1000000}") int operations, @Value("${benchmark.keys:1}") int keys,
+            @Value("${benchmark.permits-per-second:1e12}") double permitsPerSecond) {
+        this.stripes = stripes;
+        this.threads = threads;
+        this.operations = operations;
+        this.keys = keys;
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        log.info("Rate limiter benchmark, {} operations per thread on {} keys at {} permits/s", this.operations,
+                this.keys, this.permitsPerSecond);
+        // warm up the JIT, those numbers are not reported
+        measure(this.stripes.get(0), this.threads.get(this.threads.size() - 1), this.operations / 10);
+        log.info(String.format("%8s %8s %10s %12s %10s", "stripes", "threads", "ns/op", "Mops/s", "allowed %"));
+        for (int stripes : this.stripes) {
+            for (int threads : this.threads) {
+                Result result = measure(stripes, threads, this.operations);
+                log.info(String.format("%8d %8d %10.1f %12.2f %10.1f", stripes, threads, result.nanosPerOperation(),
+                        result.operationsPerSecond() / 1e6, result.allowedShare() * 100));
+            }
+        }
+    }
+
+    Result measure(int stripes, int threads, int operations) throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(this.permitsPerSecond,
+                (long) Math.min(Long.MAX_VALUE / 2, this.permitsPerSecond), stripes, Integer.MAX_VALUE);
+        String[] keys = new String[this.keys];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "route:client-" + i;
+        }
+        LongAdder allowed = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                long admitted = 0;
+                try {
+                    start.await();
+                    for (int i = 0; i < operations; i++) {
+                        if (limiter.tryAcquire(keys[(offset + i) % keys.length]) == 0) {
+                            admitted++;
+                        }
+                    }
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                allowed.add(admitted);
+                done.countDown();
+            }, "rate-limiter-benchmark-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        workers.forEach(Thread::start);
+        long startNanos = System.nanoTime();
+        start.countDown();
+        done.await();
+        long wallNanos = System.nanoTime() - startNanos;
+        long total = (long) threads * operations;
+        return new Result((double) wallNanos * threads / total, total / (wallNanos / 1e9),
+                (double) allowed.sum() / total);
+    }
+
+    record Result(double nanosPerOperation, double operationsPerSecond, double allowedShare) {
+    }
+
+}
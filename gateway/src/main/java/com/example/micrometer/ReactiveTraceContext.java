@@ -0,0 +1,52 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the trace context of a request without opening a scope. Opening one (what
+ * {@link Observation#scoped(Runnable)} does) puts the span and the MDC entries into
+ * thread locals and takes them out again, which is more than a filter needs when all it
+ * wants is the trace id. The observation of the server request is available in the
+ * Reactor context, the span of an observation in its
+ * {@link TracingObservationHandler.TracingContext}.
+ */
+final class ReactiveTraceContext {
+
+    private ReactiveTraceContext() {
+    }
+
+    /**
+     * @return the trace id of the observation in the Reactor context of the subscriber,
+     * empty when there is none
+     */
+    static Mono<String> traceId() {
+        return observation().mapNotNull(ReactiveTraceContext::traceId);
+    }
+
+    /**
+     * @return the observation in the Reactor context of the subscriber, empty when there
+     * is none
+     */
+    static Mono<Observation> observation() {
+        return Mono.deferContextual(context -> Mono
+            .justOrEmpty(context.<Observation>getOrDefault(ObservationThreadLocalAccessor.KEY, null)));
+    }
+
+    /**
+     * @return the trace id of the given observation or {@code null} when it is not traced
+     */
+    static String traceId(Observation observation) {
+        if (observation == null) {
+            return null;
+        }
+        TracingObservationHandler.TracingContext tracingContext = observation.getContextView()
+            .get(TracingObservationHandler.TracingContext.class);
+        Span span = tracingContext != null ? tracingContext.getSpan() : null;
+        return span != null ? span.context().traceId() : null;
+    }
+
+}
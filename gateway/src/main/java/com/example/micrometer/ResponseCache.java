@@ -0,0 +1,160 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory store of responses, bounded by the size of their bodies. The bodies are kept
+ * in pooled direct buffers, so a cached response costs neither heap nor garbage
+ * collection, and a hit is written by handing out a retained duplicate of the buffer
+ * instead of copying it again. Responses expire after their time to live and are evicted
+ * least recently used first once {@code maxBytes} would be exceeded; responses larger
+ * than {@code maxEntryBytes} are not stored at all. The number of bytes held is exposed
+ * as {@code gateway.cache.size}.
+ * <p>
+ * A single lock guards the entries, which is what keeps the least recently used order
+ * this simple. It is only held to look an entry up and retain its buffer, but every hit
+ * takes it, so with many cores a concurrent cache would scale better than this sample.
+ */
+class ResponseCache {
+
+    private final long maxBytes;
+
+    private final long maxEntryBytes;
+
+    private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongSupplier nanoClock;
+
+    private long bytes;
+
+    ResponseCache(long maxBytes, long maxEntryBytes, MeterRegistry meterRegistry) {
+        this(maxBytes, maxEntryBytes, meterRegistry, System::nanoTime);
+    }
+
+    ResponseCache(long maxBytes, long maxEntryBytes, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.nanoClock = nanoClock;
+        Gauge.builder("gateway.cache.size", this, ResponseCache::bytes)
+            .description("Bytes of response bodies held by the cache")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return the response cached for the given key, with a body that the caller has to
+     * release, or {@code null} when there is none or it has expired
+     */
+    synchronized CachedResponse get(String key) {
+        CachedResponse response = this.responses.get(key);
+        if (response == null) {
+            return null;
+        }
+        if (response.expiresAtNanos() - this.nanoClock.getAsLong() <= 0) {
+            remove(key);
+            return null;
+        }
+        return response.withBody(response.body().retainedDuplicate());
+    }
+
+    /**
+     * Stores the given response, taking over the given pooled buffer as its body, unless
+     * the body is too large, in which case the buffer is released right away.
+     */
+    void put(String key, HttpStatusCode status, HttpHeaders headers, ByteBuf body, Duration timeToLive) {
+        int size = body.readableBytes();
+        if (size > this.maxEntryBytes) {
+            body.release();
+            return;
+        }
+        long now = this.nanoClock.getAsLong();
+        CachedResponse response = new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, now,
+                now + timeToLive.toNanos());
+        synchronized (this) {
+            remove(key);
+            evict(size);
+            this.responses.put(key, response);
+            this.bytes += size;
+        }
+    }
+
+    /**
+     * @return an empty pooled buffer to copy a body of up to {@code maxEntryBytes} into
+     */
+    ByteBuf allocate(int initialCapacity) {
+        int maxCapacity = (int) Math.min(Integer.MAX_VALUE, this.maxEntryBytes);
+        return PooledByteBufAllocator.DEFAULT.directBuffer(Math.min(initialCapacity, maxCapacity), maxCapacity);
+    }
+
+    long ageNanos(CachedResponse response) {
+        return this.nanoClock.getAsLong() - response.storedAtNanos();
+    }
+
+    long maxEntryBytes() {
+        return this.maxEntryBytes;
+    }
+
+    synchronized long bytes() {
+        return this.bytes;
+    }
+
+    synchronized int size() {
+        return this.responses.size();
+    }
+
+    /**
+     * Makes room for {@code size} more bytes, removing expired responses first and then
+     * the least recently used ones.
+     */
+    private void evict(int size) {
+        if (this.bytes + size <= this.maxBytes) {
+            return;
+        }
+        long now = this.nanoClock.getAsLong();
+        this.responses.values().removeIf(response -> {
+            if (response.expiresAtNanos() - now > 0) {
+                return false;
+            }
+            release(response);
+            return true;
+        });
+        Iterator<Map.Entry<String, CachedResponse>> eldest = this.responses.entrySet().iterator();
+        while (this.bytes + size > this.maxBytes && eldest.hasNext()) {
+            release(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+    private void remove(String key) {
+        CachedResponse response = this.responses.remove(key);
+        if (response != null) {
+            release(response);
+        }
+    }
+
+    private void release(CachedResponse response) {
+        this.bytes -= response.body().readableBytes();
+        response.body().release();
+    }
+
+    record CachedResponse(HttpStatusCode status, HttpHeaders headers, ByteBuf body, long storedAtNanos,
+            long expiresAtNanos) {
+
+        CachedResponse withBody(ByteBuf body) {
+            return new CachedResponse(this.status, this.headers, body, this.storedAtNanos, this.expiresAtNanos);
+        }
+
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers {@code GET} requests of a route from a {@link ResponseCache} and stores the
+ * cacheable responses of the upstream in it. A response is cacheable when it is a
+ * {@code 200} without {@code Set-Cookie} or {@code Vary} whose {@code Cache-Control} does
+ * not forbid storing it; it lives for its {@code s-maxage} or {@code max-age}, or else
+ * for {@code timeToLive}. Responses to requests with an {@code Authorization} header are
+ * only stored when they are {@code public} or have an {@code s-maxage}, as a shared cache
+ * must (RFC 9111, section 3.5). Requests with {@code Cache-Control: no-cache} or
+ * {@code no-store} bypass the cache.
+ * <p>
+ * Concurrent misses of the same request are coalesced: only the first one goes upstream,
+ * the others wait for it and are answered from the cache once it stored the response, or
+ * go upstream themselves when the response could not be cached. Every lookup is observed
+ * as {@code gateway.cache}, with the route and an outcome of {@code hit}, {@code miss} or
+ * {@code coalesced}, as a child of the observation of the request found in the Reactor
+ * context.
+ * <p>
+ * The filter runs before {@link NettyWriteResponseFilter}, since that one writes the
+ * upstream response to the response it was given, not to the one decorated here.
+ */
+class ResponseCacheFilter implements GatewayFilter, Ordered {
+
+    // what is allocated for copying a body of unknown length, it grows from there
+    private static final int INITIAL_BODY_CAPACITY = 8 * 1024;
+
+    private static final List<String> NOT_STORED_HEADERS = List.of(HttpHeaders.CONNECTION,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE, "Keep-Alive");
+
+    private final String routeId;
+
+    private final ResponseCache cache;
+
+    private final Duration timeToLive;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final ConcurrentHashMap<String, Sinks.Empty<Void>> misses = new ConcurrentHashMap<>();
+
+    ResponseCacheFilter(String routeId, ResponseCache cache, Duration timeToLive,
+            ObservationRegistry observationRegistry) {
+        this.routeId = routeId;
+        this.cache = cache;
+        this.timeToLive = timeToLive;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!HttpMethod.GET.equals(request.getMethod()) || bypassesCache(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+        String key = key(request);
+        boolean authorized = request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION);
+        return Mono.deferContextual(context -> {
+            Observation parent = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            ResponseCache.CachedResponse cached = this.cache.get(key);
+            if (cached != null) {
+                return observe("hit", parent, write(exchange.getResponse(), cached));
+            }
+            Sinks.Empty<Void> miss = Sinks.empty();
+            Sinks.Empty<Void> pending = this.misses.putIfAbsent(key, miss);
+            if (pending != null) {
+                return observe("coalesced", parent, pending.asMono().then(Mono.defer(() -> {
+                    ResponseCache.CachedResponse stored = this.cache.get(key);
+                    return stored != null ? write(exchange.getResponse(), stored) : chain.filter(exchange);
+                })));
+            }
+            ServerHttpResponse response = new CachingResponse(exchange.getResponse(), key, authorized);
+            return observe("miss", parent, chain.filter(exchange.mutate().response(response).build()))
+                .doFinally(signal -> {
+                    this.misses.remove(key, miss);
+                    miss.tryEmitEmpty();
+                });
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private String key(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = this.routeId + ' ' + request.getURI().getRawPath();
+        return query != null ? path + '?' + query : path;
+    }
+
+    private Mono<Void> observe(String outcome, Observation parent, Mono<Void> lookup) {
+        Observation observation = Observation.createNotStarted("gateway.cache", this.observationRegistry)
+            .lowCardinalityKeyValue("route", this.routeId)
+            .lowCardinalityKeyValue("outcome", outcome)
+            .parentObservation(parent)
+            .start();
+        return lookup.doOnError(observation::error).doFinally(signal -> observation.stop());
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, ResponseCache.CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().setContentLength(cached.body().readableBytes());
+        long age = TimeUnit.NANOSECONDS.toSeconds(this.cache.ageNanos(cached));
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(age));
+        DataBuffer body = wrap(response.bufferFactory(), cached.body());
+        return response.writeWith(Mono.just(body).doOnDiscard(DataBuffer.class, DataBufferUtils::release));
+    }
+
+    private static DataBuffer wrap(DataBufferFactory bufferFactory, ByteBuf body) {
+        if (bufferFactory instanceof NettyDataBufferFactory nettyBufferFactory) {
+            return nettyBufferFactory.wrap(body);
+        }
+        try {
+            return bufferFactory.wrap(ByteBufUtil.getBytes(body));
+        }
+        finally {
+            body.release();
+        }
+    }
+
+    private static boolean bypassesCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null
+                && (directive(cacheControl, "no-cache") != null || directive(cacheControl, "no-store") != null);
+    }
+
+    /**
+     * @return how long the response may be cached or {@code null} when it must not be
+     */
+    Duration timeToLive(HttpStatusCode status, HttpHeaders headers, boolean authorized) {
+        if (status == null || status.value() != HttpStatus.OK.value() || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.containsKey(HttpHeaders.VARY)) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return authorized ? null : this.timeToLive;
+        }
+        if (directive(cacheControl, "no-store") != null || directive(cacheControl, "no-cache") != null
+                || directive(cacheControl, "private") != null) {
+            return null;
+        }
+        String sharedMaxAge = directive(cacheControl, "s-maxage");
+        if (authorized && sharedMaxAge == null && directive(cacheControl, "public") == null) {
+            return null;
+        }
+        String maxAge = sharedMaxAge;
+        maxAge = maxAge != null ? maxAge : directive(cacheControl, "max-age");
+        if (maxAge == null) {
+            return this.timeToLive;
+        }
+        try {
+            long seconds = Long.parseLong(maxAge);
+            return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        }
+        catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the value of the given directive, empty when it has none, or {@code null}
+     * when the directive is missing
+     */
+    private static String directive(String cacheControl, String name) {
+        for (String directive : cacheControl.split(",")) {
+            String[] parts = directive.trim().split("=", 2);
+            if (parts[0].toLowerCase(Locale.ROOT).equals(name)) {
+                return parts.length > 1 ? parts[1].trim() : "";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the body of a cacheable response while it is written. Every buffer is copied
+     * into a pooled buffer before it is passed on, until the body turns out to be larger
+     * than the cache takes; from then on the copy is dropped and the rest of the body is
+     * just passed on. Responses whose {@code Content-Length} already shows they are too
+     * large are not copied at all. The copy is handed to the cache once the body was
+     * written completely.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+
+        private final boolean authorized;
+
+        private ByteBuf copy;
+
+        CachingResponse(ServerHttpResponse delegate, String key, boolean authorized) {
+            super(delegate);
+            this.key = key;
+            this.authorized = authorized;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            Duration timeToLive = timeToLive(status, getHeaders(), this.authorized);
+            long contentLength = getHeaders().getContentLength();
+            if (timeToLive == null || contentLength > cache.maxEntryBytes()) {
+                return super.writeWith(body);
+            }
+            synchronized (this) {
+                this.copy = cache.allocate(contentLength >= 0 ? (int) contentLength : INITIAL_BODY_CAPACITY);
+            }
+            return super.writeWith(Flux.from(body).doOnNext(this::copy)).doOnSuccess(done -> store(status, timeToLive))
+                .doFinally(signal -> release());
+        }
+
+        private synchronized void copy(DataBuffer buffer) {
+            if (this.copy == null) {
+                return;
+            }
+            if (buffer.readableByteCount() > this.copy.maxWritableBytes()) {
+                release();
+                return;
+            }
+            try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    this.copy.writeBytes(buffers.next());
+                }
+            }
+        }
+
+        private void store(HttpStatusCode status, Duration timeToLive) {
+            ByteBuf body;
+            synchronized (this) {
+                body = this.copy;
+                this.copy = null;
+            }
+            if (body == null) {
+                return;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (NOT_STORED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            cache.put(this.key, status, headers, body, timeToLive);
+        }
+
+        private synchronized void release() {
+            if (this.copy != null) {
+                this.copy.release();
+                this.copy = null;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load harness for the {@code /load/<stage>/**} routes of this gateway. Sends
+ * {@code benchmark.requests} GET requests with {@code benchmark.concurrency} in flight to
+ * each of the {@code benchmark.stages} and logs requests/sec, p50 and p99 latency, the
+ * p50 difference to the first stage, the time spent in the timed filters per request and
+ * how many requests were rejected or failed. Start it with {@code benchmark=throughput},
+ * usually together with {@code upstream.enabled=true} so that the upstream runs in the
+ * same JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    private final Environment environment;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<Integer> stages;
+
+    private final int requests;
+
+    private final int concurrency;
+
+    ThroughputBenchmark(Environment environment, MeterRegistry meterRegistry,
+            @Value("${benchmark.stages:0,1,2,3}") List<Integer> stages,
+            @Value("${benchmark.requests:20000}") int requests, @Value("${benchmark.concurrency:64}") int concurrency) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.stages = stages;
+        this.requests = requests;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void run(String... args) {
+        ConnectionProvider provider = ConnectionProvider.builder("throughput-benchmark")
+            .maxConnections(this.concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://localhost:" + this.environment.getProperty("local.server.port"))
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+            .build();
+        try {
+            log.info("Throughput benchmark, {} requests per stage, concurrency {}, stages {}", this.requests,
+                    this.concurrency, this.stages);
+            // warm up connections and JIT, those numbers are not reported
+            this.stages.forEach(stage -> measure(webClient, stage, Math.max(this.concurrency, this.requests / 10)));
+            log.info(String.format("%6s %10s %10s %10s %12s %12s %10s %10s", "stage", "req/s", "p50 ms", "p99 ms",
+                    "p50 diff ms", "filter us", "rejected", "failed"));
+            Double baseline = null;
+            for (int stage : this.stages) {
+                Result result = measure(webClient, stage, this.requests);
+                baseline = baseline != null ? baseline : result.latencyP50();
+                log.info(String.format("%6d %10.1f %10.2f %10.2f %12.3f %12.2f %10d %10d", stage,
+                        result.requestsPerSecond(), result.latencyP50(), result.latencyP99(),
+                        result.latencyP50() - baseline, result.filterMicros(), result.rejected(), result.failed()));
+            }
+        }
+        finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    Result measure(WebClient webClient, int stage, int count) {
+        Timer latency = Timer.builder("benchmark.latency")
+            .publishPercentiles(0.5, 0.99)
+            .register(new SimpleMeterRegistry());
+        LongAdder rejected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        double filterMillisBefore = filterMillis();
+        long start = System.nanoTime();
+        Flux.range(0, count).flatMap(i -> {
+            long sent = System.nanoTime();
+            return webClient.get()
+                .uri("/load/{stage}/", stage)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .doOnNext(status -> {
+                    latency.record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                    if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                        rejected.increment();
+                    }
+                    else if (status.isError()) {
+                        failed.increment();
+                    }
+                })
+                .onErrorResume(ex -> {
+                    failed.increment();
+                    return Mono.empty();
+                });
+        }, this.concurrency).blockLast();
+        long wallNanos = System.nanoTime() - start;
+        return new Result(count / (wallNanos / 1e9), percentile(latency, 0.5), percentile(latency, 0.99),
+                (filterMillis() - filterMillisBefore) * 1000 / count, rejected.sum(), failed.sum());
+    }
+
+    private double filterMillis() {
+        return this.meterRegistry.find("gateway.filter")
+            .timers()
+            .stream()
+            .mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS))
+            .sum();
+    }
+
+    /**
+     * Returns the given published percentile of the timer in milliseconds, shared by the
+     * benchmarks of the gateway.
+     */
+    static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    record Result(double requestsPerSecond, double latencyP50, double latencyP99, double filterMicros, long rejected,
+            long failed) {
+    }
+
+}
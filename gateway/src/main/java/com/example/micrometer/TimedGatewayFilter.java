@@ -0,0 +1,42 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long a filter takes before it hands the request on to the rest of the chain
+ * as {@code gateway.filter}, tagged with the name of the filter. Requests that the filter
+ * does not pass on, e.g. rejected ones, are not recorded. A plain timer is used instead
+ * of an observation, so that measuring a filter does not cost more than the filter
+ * itself.
+ */
+class TimedGatewayFilter implements GatewayFilter {
+
+    private final GatewayFilter delegate;
+
+    private final Timer timer;
+
+    TimedGatewayFilter(String name, GatewayFilter delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timer = Timer.builder("gateway.filter")
+            .description("Time a filter takes before passing the request on")
+            .tag("filter", name)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return this.delegate.filter(exchange, filtered -> {
+            this.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return chain.filter(filtered);
+        });
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.example.micrometer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, one per key, that refill at {@code permitsPerSecond} and hold
+ * up to {@code burst} tokens. A bucket is kept as the time at which it would be full
+ * again (the virtual scheduling form of a token bucket), so taking a token is a single
+ * compare-and-set and no lock is needed.
+ * <p>
+ * To keep threads from contending for the same compare-and-set, each bucket is split into
+ * {@code stripes} smaller buckets that share the rate and the burst between them. A
+ * request starts at a random stripe and moves on to the next ones when that stripe is
+ * empty, so a key is only rejected when all of its stripes are empty.
+ * <p>
+ * There are never more than {@code maxKeys} buckets. Once they are all taken, new keys
+ * share a single overflow bucket, so that a flood of new keys neither grows the map nor
+ * gets around the limit. At most once a second, the buckets that have been full again for
+ * more than a second are then removed to make room, since a full bucket is no different
+ * from a new one. A request that took a token from a bucket that was removed meanwhile
+ * takes it again from the bucket that is in the map now.
+ */
+class TokenBucketRateLimiter {
+
+    // longs per stripe, keeps the stripes of a bucket on separate cache lines
+    private static final int PADDING = 8;
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int stripes;
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private final int maxKeys;
+
+    private final LongSupplier nanoClock;
+
+    private final ConcurrentHashMap<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+
+    // reserved before a bucket is added, so that there are never more than maxKeys
+    private final AtomicInteger bucketCount = new AtomicInteger();
+
+    private final AtomicLongArray overflow;
+
+    private final AtomicLong lastSweepNanos;
+
+    TokenBucketRateLimiter(double permitsPerSecond, long burst, int stripes, int maxKeys) {
+        this(permitsPerSecond, burst, stripes, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, long burst, int stripes, int maxKeys, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst <= 0 || stripes <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Rate, burst, stripes and max keys must be positive");
+        }
+        this.stripes = stripes;
+        this.intervalNanos = Math.max(1, (long) (1e9 * stripes / permitsPerSecond));
+        long burstPerStripe = Math.max(1, (burst + stripes - 1) / stripes);
+        this.toleranceNanos = burstPerStripe * this.intervalNanos;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        this.overflow = newBucket(now);
+        this.lastSweepNanos = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     * @return {@code 0} when a token was taken, otherwise how many nanoseconds it takes
+     * until the next token is available
+     */
+    long tryAcquire(String key) {
+        while (true) {
+            AtomicLongArray bucket = this.buckets.get(key);
+            if (bucket == null) {
+                bucket = newOrOverflowBucket(key);
+            }
+            long wait = tryAcquire(bucket);
+            if (bucket == this.overflow || this.buckets.get(key) == bucket) {
+                return wait;
+            }
+        }
+    }
+
+    private long tryAcquire(AtomicLongArray bucket) {
+        int first = this.stripes > 1 ? ThreadLocalRandom.current().nextInt(this.stripes) : 0;
+        long wait = Long.MAX_VALUE;
+        for (int i = 0; i < this.stripes; i++) {
+            long stripeWait = tryAcquire(bucket, ((first + i) % this.stripes) * PADDING);
+            if (stripeWait == 0) {
+                return 0;
+            }
+            wait = Math.min(wait, stripeWait);
+        }
+        return wait;
+    }
+
+    private long tryAcquire(AtomicLongArray bucket, int index) {
+        while (true) {
+            long now = this.nanoClock.getAsLong();
+            long full = bucket.get(index);
+            long next = Math.max(full, now) + this.intervalNanos;
+            if (next - now > this.toleranceNanos) {
+                return next - now - this.toleranceNanos;
+            }
+            if (bucket.compareAndSet(index, full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    int keys() {
+        return this.bucketCount.get();
+    }
+
+    private AtomicLongArray newOrOverflowBucket(String key) {
+        long now = this.nanoClock.getAsLong();
+        if (this.bucketCount.get() >= this.maxKeys) {
+            sweepFullBuckets(now);
+        }
+        AtomicLongArray bucket = this.buckets.computeIfAbsent(key, k -> {
+            if (this.bucketCount.incrementAndGet() > this.maxKeys) {
+                this.bucketCount.decrementAndGet();
+                // no mapping is added when this returns null
+                return null;
+            }
+            return newBucket(now);
+        });
+        return bucket != null ? bucket : this.overflow;
+    }
+
+    private AtomicLongArray newBucket(long now) {
+        AtomicLongArray bucket = new AtomicLongArray(this.stripes * PADDING);
+        for (int i = 0; i < this.stripes; i++) {
+            bucket.set(i * PADDING, now);
+        }
+        return bucket;
+    }
+
+    /**
+     * Removes the buckets that are full again, unless another thread did so less than
+     * {@link #SWEEP_INTERVAL_NANOS} ago, which keeps a flood of new keys from scanning
+     * the map on every request.
+     */
+    private void sweepFullBuckets(long now) {
+        long lastSweep = this.lastSweepNanos.get();
+        if (now - lastSweep < SWEEP_INTERVAL_NANOS || !this.lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+        this.buckets.forEach((key, bucket) -> {
+            if (idle(bucket, now) && this.buckets.remove(key, bucket)) {
+                this.bucketCount.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Whether all stripes of the bucket have been full for more than
+     * {@link #SWEEP_INTERVAL_NANOS}, so that no request is likely to be using it.
+     */
+    private boolean idle(AtomicLongArray bucket, long now) {
+        for (int i = 0; i < this.stripes; i++) {
+            if (bucket.get(i * PADDING) - (now - SWEEP_INTERVAL_NANOS) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
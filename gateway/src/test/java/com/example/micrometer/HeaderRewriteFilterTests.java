@@ -0,0 +1,135 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.handler.TracingObservationHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class HeaderRewriteFilterTests {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void should_read_the_trace_id_of_the_observation_in_the_reactor_context() {
+        Observation observation = tracedObservation("4bf92f3577b34da6");
+
+        then(ReactiveTraceContext.traceId()
+            .contextWrite(Context.of(ObservationThreadLocalAccessor.KEY, observation))
+            .block()).isEqualTo("4bf92f3577b34da6");
+        then(ReactiveTraceContext.traceId().block()).isNull();
+    }
+
+    @Test
+    void should_not_return_a_trace_id_for_an_untraced_observation() {
+        Observation observation = Observation.start("untraced", registry(context -> {
+        }));
+
+        then(ReactiveTraceContext.traceId()
+            .contextWrite(Context.of(ObservationThreadLocalAccessor.KEY, observation))
+            .block()).isNull();
+    }
+
+    @Test
+    void should_drop_internal_headers_and_pass_the_trace_id_on_in_both_directions() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/")
+            .header("X-Internal-User", "admin")
+            .header("x-internal-role", "root")
+            .header(HttpHeaders.ACCEPT, "text/plain"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+        GatewayFilterChain chain = filtered -> {
+            forwarded.set(filtered);
+            filtered.getResponse().getHeaders().set(HttpHeaders.SERVER, "upstream");
+            return filtered.getResponse().setComplete();
+        };
+
+        new HeaderRewriteFilter().filter(exchange, chain)
+            .contextWrite(Context.of(ObservationThreadLocalAccessor.KEY, tracedObservation("4bf92f3577b34da6")))
+            .block();
+
+        HttpHeaders requestHeaders = forwarded.get().getRequest().getHeaders();
+        then(requestHeaders.keySet()).noneMatch(name -> name.toLowerCase().startsWith("x-internal-"));
+        then(requestHeaders.getFirst(HttpHeaders.ACCEPT)).isEqualTo("text/plain");
+        then(requestHeaders.getFirst(HeaderRewriteFilter.REQUEST_ID)).isEqualTo("4bf92f3577b34da6");
+        HttpHeaders responseHeaders = exchange.getResponse().getHeaders();
+        then(responseHeaders.getFirst(HeaderRewriteFilter.REQUEST_ID)).isEqualTo("4bf92f3577b34da6");
+        then(responseHeaders.containsKey(HttpHeaders.SERVER)).isFalse();
+    }
+
+    @Test
+    void should_not_set_a_request_id_without_a_trace() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+        AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+
+        new HeaderRewriteFilter().filter(exchange, filtered -> {
+            forwarded.set(filtered);
+            return filtered.getResponse().setComplete();
+        }).block();
+
+        then(forwarded.get().getRequest().getHeaders().containsKey(HeaderRewriteFilter.REQUEST_ID)).isFalse();
+        then(exchange.getResponse().getHeaders().containsKey(HeaderRewriteFilter.REQUEST_ID)).isFalse();
+    }
+
+    @Test
+    void should_time_the_filter_only_when_it_passes_the_request_on() {
+        TimedGatewayFilter passing = new TimedGatewayFilter("passing", (exchange, chain) -> chain.filter(exchange),
+                this.meterRegistry);
+        TimedGatewayFilter rejecting = new TimedGatewayFilter("rejecting", (exchange, chain) -> Mono.empty(),
+                this.meterRegistry);
+        GatewayFilterChain chain = exchange -> Mono.empty();
+
+        passing.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/")), chain).block();
+        rejecting.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/")), chain).block();
+
+        then(this.meterRegistry.get("gateway.filter").tag("filter", "passing").timer().count()).isEqualTo(1);
+        then(this.meterRegistry.get("gateway.filter").tag("filter", "rejecting").timer().count()).isZero();
+    }
+
+    private static Observation tracedObservation(String traceId) {
+        TraceContext traceContext = mock(TraceContext.class);
+        given(traceContext.traceId()).willReturn(traceId);
+        Span span = mock(Span.class);
+        given(span.context()).willReturn(traceContext);
+        return Observation.start("traced", registry(context -> {
+            TracingObservationHandler.TracingContext tracingContext = new TracingObservationHandler.TracingContext();
+            tracingContext.setSpan(span);
+            context.put(TracingObservationHandler.TracingContext.class, tracingContext);
+        }));
+    }
+
+    private static ObservationRegistry registry(Consumer<Observation.Context> onStart) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStart(Observation.Context context) {
+                onStart.accept(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        return registry;
+    }
+
+}
@@ -0,0 +1,204 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class ResponseCacheFilterTests {
+
+    AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ResponseCache cache = new ResponseCache(1024, 16, this.meterRegistry, this.clock::get);
+
+    ResponseCacheFilter filter = new ResponseCacheFilter("route", this.cache, Duration.ofSeconds(10),
+            observationRegistry());
+
+    AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void should_answer_the_second_request_from_the_cache() {
+        MockServerWebExchange miss = get("/items");
+        MockServerWebExchange hit = get("/items");
+
+        this.filter.filter(miss, upstream("hello")).block();
+        this.filter.filter(hit, upstream("hello")).block();
+
+        then(miss.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        then(hit.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        then(hit.getResponse().getHeaders().getContentLength()).isEqualTo(5);
+        then(this.upstreamCalls).hasValue(1);
+        then(lookups("miss")).isEqualTo(1);
+        then(lookups("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void should_only_append_the_query_to_the_key_when_there_is_one() {
+        this.filter.filter(get("/items"), upstream("hello")).block();
+        this.filter.filter(get("/items?page=2"), upstream("world")).block();
+
+        then(cachedBody("route /items")).isEqualTo("hello");
+        then(cachedBody("route /items?page=2")).isEqualTo("world");
+        then(cachedBody("route /items?null")).isNull();
+    }
+
+    @Test
+    void should_send_only_one_of_concurrent_misses_upstream() throws Exception {
+        Sinks.Empty<Void> upstreamDone = Sinks.empty();
+        GatewayFilterChain chain = exchange -> {
+            this.upstreamCalls.incrementAndGet();
+            return upstreamDone.asMono().then(write(exchange.getResponse(), "hello"));
+        };
+        MockServerWebExchange first = get("/items");
+        MockServerWebExchange second = get("/items");
+
+        CompletableFuture<Void> firstDone = this.filter.filter(first, chain).toFuture();
+        CompletableFuture<Void> secondDone = this.filter.filter(second, chain).toFuture();
+        upstreamDone.tryEmitEmpty();
+        firstDone.get(5, TimeUnit.SECONDS);
+        secondDone.get(5, TimeUnit.SECONDS);
+
+        then(this.upstreamCalls).hasValue(1);
+        then(first.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        then(second.getResponse().getBodyAsString().block()).isEqualTo("hello");
+        then(lookups("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void should_go_upstream_again_once_the_response_expired() {
+        this.filter.filter(get("/items"), upstream("hello")).block();
+
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        this.filter.filter(get("/items"), upstream("hello")).block();
+
+        then(this.upstreamCalls).hasValue(2);
+        then(lookups("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void should_release_the_body_of_an_expired_response() {
+        this.filter.filter(get("/items"), upstream("hello")).block();
+        ByteBuf body = this.cache.get("route /items").body();
+        body.release();
+
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+
+        then(this.cache.get("route /items")).isNull();
+        then(body.refCnt()).isZero();
+        then(this.cache.bytes()).isZero();
+    }
+
+    @Test
+    void should_pass_bodies_larger_than_an_entry_through_without_storing_them() {
+        // no Content-Length, so the size only shows while the body is written
+        GatewayFilterChain chain = exchange -> {
+            this.upstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Flux.just("0123456789", "0123456789")
+                .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))));
+        };
+        MockServerWebExchange exchange = get("/items");
+
+        this.filter.filter(exchange, chain).block();
+
+        then(exchange.getResponse().getBodyAsString().block()).isEqualTo("01234567890123456789");
+        then(this.cache.get("route /items")).isNull();
+        then(this.cache.bytes()).isZero();
+    }
+
+    @Test
+    void should_only_store_responses_to_authorized_requests_when_they_are_public() {
+        MockServerHttpRequest.BaseBuilder<?> authorized = MockServerHttpRequest.get("/private")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer token");
+        this.filter.filter(MockServerWebExchange.from(authorized), upstream("hello")).block();
+        this.filter.filter(MockServerWebExchange.from(authorized), upstream("hello")).block();
+
+        then(this.upstreamCalls).hasValue(2);
+        then(this.filter.timeToLive(HttpStatus.OK, cacheControl("public, max-age=60"), true))
+            .isEqualTo(Duration.ofSeconds(60));
+        then(this.filter.timeToLive(HttpStatus.OK, cacheControl("s-maxage=30"), true))
+            .isEqualTo(Duration.ofSeconds(30));
+        then(this.filter.timeToLive(HttpStatus.OK, cacheControl("max-age=60"), true)).isNull();
+        then(this.filter.timeToLive(HttpStatus.OK, cacheControl("max-age=60"), false))
+            .isEqualTo(Duration.ofSeconds(60));
+    }
+
+    private ObservationRegistry observationRegistry() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new DefaultMeterObservationHandler(this.meterRegistry));
+        return registry;
+    }
+
+    private GatewayFilterChain upstream(String body) {
+        return exchange -> {
+            this.upstreamCalls.incrementAndGet();
+            return write(exchange.getResponse(), body);
+        };
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, String body) {
+        return Mono.defer(() -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentLength(bytes.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+        });
+    }
+
+    private String cachedBody(String key) {
+        ResponseCache.CachedResponse cached = this.cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            return cached.body().toString(StandardCharsets.UTF_8);
+        }
+        finally {
+            cached.body().release();
+        }
+    }
+
+    private long lookups(String outcome) {
+        return this.meterRegistry.find("gateway.cache")
+            .tag("outcome", outcome)
+            .timers()
+            .stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+
+    private static MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+class TokenBucketRateLimiterTests {
+
+    AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void should_admit_the_burst_and_then_reject() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 1, 100, this.clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            then(limiter.tryAcquire("key")).isZero();
+        }
+
+        then(limiter.tryAcquire("key")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void should_refill_at_the_configured_rate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 1, 100, this.clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("key");
+        }
+
+        this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+
+        then(limiter.tryAcquire("key")).isZero();
+        then(limiter.tryAcquire("key")).isZero();
+        then(limiter.tryAcquire("key")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void should_keep_buckets_of_different_keys_apart() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 1, 100, this.clock::get);
+
+        then(limiter.tryAcquire("a")).isZero();
+        then(limiter.tryAcquire("a")).isPositive();
+        then(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void should_share_an_overflow_bucket_once_max_keys_are_taken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 1, 2, this.clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        then(limiter.tryAcquire("c")).isZero();
+        then(limiter.tryAcquire("d")).as("new keys share one bucket").isPositive();
+        then(limiter.keys()).isEqualTo(2);
+    }
+
+    @Test
+    void should_remove_full_buckets_to_make_room_for_new_keys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 1, 2, this.clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        this.clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        then(limiter.tryAcquire("c")).isZero();
+        then(limiter.tryAcquire("d")).isZero();
+        then(limiter.keys()).isEqualTo(2);
+    }
+
+    @Test
+    void should_keep_buckets_that_were_in_use_within_the_last_second() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 1, 2, this.clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // both are full again after 100 ms, but not for more than a second yet
+        this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1050));
+
+        then(limiter.tryAcquire("c")).isZero();
+        then(limiter.tryAcquire("d")).as("new keys still share one bucket").isPositive();
+        then(limiter.keys()).isEqualTo(2);
+    }
+
+    @Test
+    void should_never_admit_more_than_the_burst_across_stripes_and_threads() throws InterruptedException {
+        // time stands still, so nothing but the burst may be admitted
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, 1000, 4, 100, this.clock::get);
+        LongAdder admitted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (limiter.tryAcquire("key") == 0) {
+                            admitted.increment();
+                        }
+                    }
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        then(admitted.sum()).isEqualTo(1000);
+    }
+
+    @Test
+    void should_answer_rejected_requests_with_retry_after_in_whole_seconds() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0.5, 1, 1, 100, this.clock::get);
+        RateLimitFilter filter = new RateLimitFilter("route", limiter, List.of(), new SimpleMeterRegistry());
+        GatewayFilterChain chain = exchange -> Mono.empty();
+
+        MockServerWebExchange admitted = exchange(MockServerHttpRequest.get("/"));
+        filter.filter(admitted, chain).block();
+        MockServerWebExchange rejected = exchange(MockServerHttpRequest.get("/"));
+        filter.filter(rejected, chain).block();
+
+        then(admitted.getResponse().getStatusCode()).isNull();
+        then(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        then(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    @Test
+    void should_only_trust_forwarded_for_from_trusted_proxies() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1, 100, this.clock::get);
+        RateLimitFilter filter = new RateLimitFilter("route", limiter, List.of("10.0.0.1", "10.0.0.2"),
+                new SimpleMeterRegistry());
+
+        then(filter.client(request("192.168.0.9", "1.2.3.4"))).isEqualTo("192.168.0.9");
+        then(filter.client(request("10.0.0.1", "1.2.3.4"))).isEqualTo("1.2.3.4");
+        then(filter.client(request("10.0.0.1", "6.6.6.6, 1.2.3.4, 10.0.0.2"))).isEqualTo("1.2.3.4");
+        then(filter.client(request("10.0.0.1", null))).isEqualTo("10.0.0.1");
+    }
+
+    private static MockServerHttpRequest request(String remoteAddress, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/")
+            .remoteAddress(new InetSocketAddress(remoteAddress, 12345));
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        return request.build();
+    }
+
+    private static MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request.remoteAddress(new InetSocketAddress("127.0.0.1", 12345)));
+    }
+
+}
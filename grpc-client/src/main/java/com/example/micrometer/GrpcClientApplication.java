@@ -1,12 +1,17 @@
 package com.example.micrometer;
 
+import io.grpc.ClientInterceptor;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.testing.protobuf.SimpleRequest;
 import io.grpc.testing.protobuf.SimpleResponse;
 import io.grpc.testing.protobuf.SimpleServiceGrpc;
 import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceBlockingStub;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
@@ -16,8 +21,12 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.CompletableFuture;
 
 @SpringBootApplication
 public class GrpcClientApplication {
@@ -31,21 +40,84 @@ public class GrpcClientApplication {
         new SpringApplicationBuilder(GrpcClientApplication.class).web(WebApplicationType.NONE).run(args);
     }
 
+    // With grpc.sampling-aware.enabled=true calls within an unsampled span are just timed
+    // and send no trace headers, all others are sampled by the tracer
     @Bean
-    public ObservationGrpcClientInterceptor interceptor(ObservationRegistry observationRegistry) {
-        return new ObservationGrpcClientInterceptor(observationRegistry);
+    public ClientInterceptor interceptor(ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            Tracer tracer, @Value("${grpc.sampling-aware.enabled:false}") boolean samplingAware) {
+        ObservationGrpcClientInterceptor tracing = new ObservationGrpcClientInterceptor(observationRegistry);
+        if (!samplingAware) {
+            return tracing;
+        }
+        ObservationRegistry metricsOnly = ObservationRegistry.create();
+        metricsOnly.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        return new SamplingAwareClientInterceptor(tracer, tracing, new ObservationGrpcClientInterceptor(metricsOnly));
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    ManagedChannel channel(ClientInterceptor interceptor) {
+        return ManagedChannelBuilder.forTarget(url).usePlaintext().intercept(interceptor).build();
     }
 
     @Bean
-    SimpleServiceBlockingStub client(ObservationGrpcClientInterceptor interceptor) {
-        ManagedChannel channel = ManagedChannelBuilder.forTarget(url).usePlaintext().intercept(interceptor).build();
+    SimpleServiceBlockingStub client(ManagedChannel channel) {
         return SimpleServiceGrpc.newBlockingStub(channel);
     }
 
+    // Calls the bidi streaming RPC with grpc.client.streaming.messages messages, sending
+    // only while the server keeps up
+    @Bean
+    @ConditionalOnProperty(name = "grpc.client.streaming.messages")
+    CommandLineRunner streamingRunner(ManagedChannel channel, ObservationRegistry observationRegistry,
+            @Value("${grpc.client.streaming.messages}") int messages) {
+        return (args) -> Observation.createNotStarted("grpc.client.streaming", observationRegistry).observe(() -> {
+            CompletableFuture<Integer> done = new CompletableFuture<>();
+            SimpleServiceGrpc.newStub(channel)
+                .bidiStreamingRpc(new ClientResponseObserver<SimpleRequest, SimpleResponse>() {
+                    private int sent;
+
+                    private int received;
+
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<SimpleRequest> requestStream) {
+                        requestStream.setOnReadyHandler(() -> {
+                            while (requestStream.isReady() && this.sent < messages) {
+                                requestStream.onNext(
+                                        SimpleRequest.newBuilder().setRequestMessage("Hello " + this.sent++).build());
+                            }
+                            if (this.sent == messages) {
+                                this.sent++;
+                                requestStream.onCompleted();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onNext(SimpleResponse response) {
+                        this.received++;
+                    }
+
+                    @Override
+                    public void onError(Throwable throwable) {
+                        done.completeExceptionally(throwable);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.complete(this.received);
+                    }
+                });
+            log.info("Received {} streamed responses", done.join());
+        });
+    }
+
     @Bean
     CommandLineRunner runner(SimpleServiceBlockingStub blockingStub, ObservationRegistry observationRegistry,
-            Tracer tracer) {
+            Tracer tracer, @Value("${benchmark:}") String benchmark) {
         return (args) -> {
+            if (StringUtils.hasText(benchmark)) {
+                return;
+            }
             SimpleRequest request = SimpleRequest.newBuilder().setRequestMessage("Hello").build();
             Observation.createNotStarted("grpc.client", observationRegistry).observe(() -> {
                 log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer", tracer.currentSpan().context().traceId());
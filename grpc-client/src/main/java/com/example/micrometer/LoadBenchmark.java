@@ -0,0 +1,158 @@
+package com.example.micrometer;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptor;
+import io.grpc.ClientInterceptors;
+import io.grpc.testing.protobuf.SimpleRequest;
+import io.grpc.testing.protobuf.SimpleResponse;
+import io.grpc.testing.protobuf.SimpleServiceGrpc;
+import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceFutureStub;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load mode of the client: unary calls through the future stub over a
+ * {@link RoundRobinChannel} with a bounded number of calls in flight, once with and once
+ * without the {@code ObservationGrpcClientInterceptor}. Latencies go into an
+ * HdrHistogram, the percentiles are logged per run and, when
+ * {@code benchmark.histogram-dir} is set, the full distribution is written as
+ * {@code .hgrm} file per run. Start it with {@code benchmark=load}; to see how the
+ * interceptor scales with cores, repeat with {@code -XX:ActiveProcessorCount}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "load")
+class LoadBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBenchmark.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final ClientInterceptor interceptor;
+
+    private final String url;
+
+    private final List<Integer> channels;
+
+    private final List<Integer> inFlights;
+
+    private final int requests;
+
+    private final String histogramDir;
+
+    LoadBenchmark(ClientInterceptor interceptor, @Value("${url:localhost:9090}") String url,
+            @Value("${benchmark.channels:1,2,4}") List<Integer> channels,
+            @Value("${benchmark.in-flight:64,256}") List<Integer> inFlights,
+            @Value("${benchmark.requests:20000}") int requests,
+            @Value("${benchmark.histogram-dir:}") String histogramDir) {
+        this.interceptor = interceptor;
+        this.url = url;
+        this.channels = channels;
+        this.inFlights = inFlights;
+        this.requests = requests;
+        this.histogramDir = histogramDir;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Load benchmark against [{}], {} requests per run, {} cores", this.url, this.requests,
+                Runtime.getRuntime().availableProcessors());
+        log.info(String.format("%-11s %8s %9s %10s %9s %9s %9s %9s %9s %7s", "interceptor", "channels", "in-flight",
+                "rpc/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors"));
+        for (boolean observed : new boolean[] { false, true }) {
+            for (int channelCount : this.channels) {
+                try (RoundRobinChannel pool = new RoundRobinChannel(this.url, channelCount)) {
+                    Channel channel = observed ? ClientInterceptors.intercept(pool, this.interceptor) : pool;
+                    SimpleServiceFutureStub stub = SimpleServiceGrpc.newFutureStub(channel);
+                    for (int inFlight : this.inFlights) {
+                        run(stub, observed, channelCount, inFlight);
+                    }
+                }
+            }
+        }
+    }
+
+    private void run(SimpleServiceFutureStub stub, boolean observed, int channelCount, int inFlight)
+            throws InterruptedException, IOException {
+        Recorder recorder = new Recorder(MAX_LATENCY_MICROS, 3);
+        LongAdder errors = new LongAdder();
+
+        // warm up connections and JIT, those numbers are not reported
+        send(stub, inFlight, Math.max(inFlight, this.requests / 10), recorder, errors);
+        recorder.reset();
+        errors.reset();
+
+        long start = System.nanoTime();
+        send(stub, inFlight, this.requests, recorder, errors);
+        long wallNanos = System.nanoTime() - start;
+
+        Histogram histogram = recorder.getIntervalHistogram();
+        log.info(String.format("%-11s %8d %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d", observed, channelCount,
+                inFlight, this.requests / (wallNanos / 1e9), millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0, errors.sum()));
+        if (StringUtils.hasText(this.histogramDir)) {
+            Path file = Path.of(this.histogramDir, String.format("grpc-client-%s-%dch-%dinflight.hgrm",
+                    observed ? "observed" : "plain", channelCount, inFlight));
+            Files.createDirectories(file.getParent());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // values are recorded in microseconds, report them in milliseconds
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private void send(SimpleServiceFutureStub stub, int inFlight, int count, Recorder recorder, LongAdder errors)
+            throws InterruptedException {
+        Semaphore permits = new Semaphore(inFlight);
+        CountDownLatch done = new CountDownLatch(count);
+        SimpleRequest request = SimpleRequest.newBuilder().setRequestMessage("Hello").build();
+        for (int i = 0; i < count; i++) {
+            permits.acquire();
+            long start = System.nanoTime();
+            Futures.addCallback(stub.unaryRpc(request), new FutureCallback<>() {
+                @Override
+                public void onSuccess(SimpleResponse response) {
+                    recorder.recordValue(
+                            Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), MAX_LATENCY_MICROS));
+                    finish();
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    errors.increment();
+                    finish();
+                }
+
+                private void finish() {
+                    permits.release();
+                    done.countDown();
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        done.await();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+}
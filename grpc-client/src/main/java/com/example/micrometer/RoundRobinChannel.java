@@ -0,0 +1,55 @@
+package com.example.micrometer;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.MethodDescriptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Spreads the calls over a fixed number of {@link ManagedChannel channels}, each with its
+ * own connection, in round-robin order. A single HTTP/2 connection is served by one event
+ * loop thread, so this is what lets the client use more than one core.
+ */
+class RoundRobinChannel extends Channel implements AutoCloseable {
+
+    private final List<ManagedChannel> channels;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    RoundRobinChannel(String target, int size) {
+        this.channels = IntStream.range(0, size)
+            .mapToObj(i -> ManagedChannelBuilder.forTarget(target).usePlaintext().build())
+            .toList();
+    }
+
+    @Override
+    public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+            MethodDescriptor<RequestT, ResponseT> methodDescriptor, CallOptions callOptions) {
+        return nextChannel().newCall(methodDescriptor, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return this.channels.get(0).authority();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.channels.forEach(ManagedChannel::shutdown);
+        for (ManagedChannel channel : this.channels) {
+            channel.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private ManagedChannel nextChannel() {
+        return this.channels.get(Math.floorMod(this.next.getAndIncrement(), this.channels.size()));
+    }
+
+}
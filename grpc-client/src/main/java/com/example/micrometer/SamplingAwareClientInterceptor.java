@@ -0,0 +1,43 @@
+package com.example.micrometer;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Follows the sampling decision of the current span: calls made within a sampled span go
+ * through the tracing interceptor, calls within an unsampled one only through the metrics
+ * interceptor, so they neither create a span nor inject trace headers. Calls without a
+ * current span go through the tracing interceptor, where the sampler of the tracer takes
+ * the one decision for them and the propagated sampled flag passes it on to the server.
+ */
+class SamplingAwareClientInterceptor implements ClientInterceptor {
+
+    private final Tracer tracer;
+
+    private final ClientInterceptor tracing;
+
+    private final ClientInterceptor metrics;
+
+    SamplingAwareClientInterceptor(Tracer tracer, ClientInterceptor tracing, ClientInterceptor metrics) {
+        this.tracer = tracer;
+        this.tracing = tracing;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+            CallOptions callOptions, Channel next) {
+        return (unsampled() ? this.metrics : this.tracing).interceptCall(method, callOptions, next);
+    }
+
+    private boolean unsampled() {
+        Span current = this.tracer.currentSpan();
+        return current != null && !Boolean.TRUE.equals(current.context().sampled());
+    }
+
+}
@@ -2,13 +2,19 @@ package com.example.micrometer;
 
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.grpc.testing.protobuf.SimpleRequest;
 import io.grpc.testing.protobuf.SimpleResponse;
 import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceImplBase;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -18,10 +24,16 @@ import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
 import reactor.core.publisher.Hooks;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @SpringBootApplication
 public class GrpcServerApplication {
 
@@ -35,14 +47,37 @@ public class GrpcServerApplication {
         new SpringApplicationBuilder(GrpcServerApplication.class).web(WebApplicationType.NONE).run(args);
     }
 
+    // With grpc.sampling-aware.enabled=true only calls that arrive with a sampled trace
+    // context are traced, the others are just timed
     @Bean
-    public ObservationGrpcServerInterceptor interceptor(ObservationRegistry observationRegistry) {
-        return new ObservationGrpcServerInterceptor(observationRegistry);
+    public ServerInterceptor interceptor(ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            Propagator propagator, @Value("${grpc.sampling-aware.enabled:false}") boolean samplingAware) {
+        ObservationGrpcServerInterceptor tracing = new ObservationGrpcServerInterceptor(observationRegistry);
+        if (!samplingAware) {
+            return tracing;
+        }
+        ObservationRegistry metricsOnly = ObservationRegistry.create();
+        metricsOnly.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        return new SamplingAwareServerInterceptor(propagator, tracing,
+                new ObservationGrpcServerInterceptor(metricsOnly));
+    }
+
+    // gRPC defaults to an unbounded cached thread pool, so blocking handlers make it
+    // grow with the load. 0 keeps that default, e.g. to compare with a blocking handler.
+    @Bean(destroyMethod = "shutdown")
+    ExecutorService grpcExecutor(
+            @Value("${grpc.executor.threads:#{2 * T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads) {
+        return threads > 0 ? Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("grpc-executor-"))
+                : Executors.newCachedThreadPool(new CustomizableThreadFactory("grpc-default-executor-"));
     }
 
     @Bean
-    Server server(EchoService echoService, ObservationGrpcServerInterceptor interceptor) {
-        return ServerBuilder.forPort(this.port).addService(echoService).intercept(interceptor).build();
+    Server server(EchoService echoService, ServerInterceptor interceptor, ExecutorService grpcExecutor) {
+        return ServerBuilder.forPort(this.port)
+            .executor(grpcExecutor)
+            .addService(echoService)
+            .intercept(interceptor)
+            .build();
     }
 
     @Bean
@@ -66,6 +101,8 @@ public class GrpcServerApplication {
         return server::shutdownNow;
     }
 
+    // Start the echo-stub sample and pass --url=http://localhost:3000/ to keep the RPC
+    // offline, e.g. for load tests
     @Bean
     WebClient webClient(WebClient.Builder builder, @Value("${url:https://reqres.in/}") String url) {
         return builder.baseUrl(url).build();
@@ -81,9 +118,20 @@ public class GrpcServerApplication {
 
         private final WebClient webClient;
 
-        public EchoService(Tracer tracer, WebClient webClient) {
+        private final boolean blocking;
+
+        private final MessageObservations messageObservations;
+
+        private final int streamMessages;
+
+        public EchoService(Tracer tracer, WebClient webClient,
+                @Value("${echo-service.blocking:false}") boolean blocking, MessageObservations messageObservations,
+                @Value("${echo-service.stream.messages:100}") int streamMessages) {
             this.tracer = tracer;
             this.webClient = webClient;
+            this.blocking = blocking;
+            this.messageObservations = messageObservations;
+            this.streamMessages = streamMessages;
         }
 
         // echo the request message
@@ -92,16 +140,60 @@ public class GrpcServerApplication {
             String message = request.getRequestMessage() + " from EchoService";
             SimpleResponse response = SimpleResponse.newBuilder().setResponseMessage(message).build();
 
-            webClient.get()
+            if (this.blocking) {
+                blockingUnaryRpc(response, responseObserver);
+                return;
+            }
+
+            // The handler returns right away and frees the gRPC executor thread, the
+            // call is completed from the pipeline once the upstream answered. The server
+            // observation is only stopped by onCompleted, contextCapture() carries it
+            // into the pipeline.
+            ServerCallStreamObserver<SimpleResponse> serverObserver = (ServerCallStreamObserver<SimpleResponse>) responseObserver;
+            Disposable upstream = webClient.get()
                 .uri("api/users")
                 .retrieve()
                 .bodyToMono(String.class)
+                .defaultIfEmpty("")
                 .doOnNext(abc -> {
+                    if (serverObserver.isCancelled()) {
+                        return;
+                    }
                     log.info("Inside webclient thread.");
                     log.info("<ACCEPTANCE_TEST_GRPC+REACTIVE_WEBCLIENT> <TRACE:{}> Hello from producer",
-                        this.tracer.currentSpan().context().traceId());
+                            this.tracer.currentSpan().context().traceId());
+                    responseObserver.onNext(response);
+                    // log it before onCompleted. The onCompleted triggers closing the
+                    // span.
+                    log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from producer",
+                            this.tracer.currentSpan().context().traceId());
+                    responseObserver.onCompleted();
+                })
+                .doOnError(error -> {
+                    if (!serverObserver.isCancelled()) {
+                        responseObserver
+                            .onError(Status.UNAVAILABLE.withDescription("Call to the upstream service failed")
+                                .withCause(error)
+                                .asRuntimeException());
+                    }
                 })
-                .block();
+                .onErrorComplete()
+                .contextCapture()
+                .subscribe();
+            // a client that cancelled or whose deadline passed waits for nothing, so the
+            // upstream call is cancelled as well
+            serverObserver.setOnCancelHandler(upstream::dispose);
+        }
+
+        // The original implementation, kept to compare against with
+        // echo-service.blocking=true. It pins a gRPC executor thread for the whole
+        // upstream call.
+        private void blockingUnaryRpc(SimpleResponse response, StreamObserver<SimpleResponse> responseObserver) {
+            webClient.get().uri("api/users").retrieve().bodyToMono(String.class).doOnNext(abc -> {
+                log.info("Inside webclient thread.");
+                log.info("<ACCEPTANCE_TEST_GRPC+REACTIVE_WEBCLIENT> <TRACE:{}> Hello from producer",
+                        this.tracer.currentSpan().context().traceId());
+            }).block();
 
             responseObserver.onNext(response);
             // log it before onCompleted. The onCompleted triggers closing the span.
@@ -109,6 +201,101 @@ public class GrpcServerApplication {
             responseObserver.onCompleted();
         }
 
+        // send echo-service.stream.messages responses, only as fast as the client reads
+        // them
+        @Override
+        public void serverStreamingRpc(SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            ServerCallStreamObserver<SimpleResponse> serverObserver = (ServerCallStreamObserver<SimpleResponse>) responseObserver;
+            serverObserver.setOnCancelHandler(() -> log.debug("Server streaming call cancelled"));
+            // onReady is called serially, once the call starts and whenever the outbound
+            // buffer drained again
+            serverObserver.setOnReadyHandler(new Runnable() {
+                private int sent;
+
+                @Override
+                public void run() {
+                    while (serverObserver.isReady() && !serverObserver.isCancelled() && this.sent < streamMessages) {
+                        SimpleResponse response = response(request.getRequestMessage() + " " + this.sent++);
+                        messageObservations.observe("server-streaming", () -> serverObserver.onNext(response));
+                    }
+                    if (this.sent == streamMessages) {
+                        this.sent++;
+                        serverObserver.onCompleted();
+                    }
+                }
+            });
+        }
+
+        // count the requests and answer once the client is done, requests are pulled one
+        // at a time so a slow server pushes back on the client
+        @Override
+        public StreamObserver<SimpleRequest> clientStreamingRpc(StreamObserver<SimpleResponse> responseObserver) {
+            ServerCallStreamObserver<SimpleResponse> serverObserver = (ServerCallStreamObserver<SimpleResponse>) responseObserver;
+            serverObserver.disableAutoRequest();
+            serverObserver.request(1);
+            return new StreamObserver<>() {
+                private int received;
+
+                @Override
+                public void onNext(SimpleRequest request) {
+                    messageObservations.observe("client-streaming", () -> this.received++);
+                    serverObserver.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    log.warn("Client streaming call failed", throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    serverObserver.onNext(response("Received " + this.received + " messages"));
+                    serverObserver.onCompleted();
+                }
+            };
+        }
+
+        // echo every request, the next request is only pulled while the client keeps up
+        // with reading the responses
+        @Override
+        public StreamObserver<SimpleRequest> bidiStreamingRpc(StreamObserver<SimpleResponse> responseObserver) {
+            ServerCallStreamObserver<SimpleResponse> serverObserver = (ServerCallStreamObserver<SimpleResponse>) responseObserver;
+            serverObserver.disableAutoRequest();
+            AtomicBoolean wasReady = new AtomicBoolean();
+            serverObserver.setOnReadyHandler(() -> {
+                if (serverObserver.isReady() && wasReady.compareAndSet(false, true)) {
+                    serverObserver.request(1);
+                }
+            });
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(SimpleRequest request) {
+                    messageObservations.observe("bidi-streaming",
+                            () -> serverObserver.onNext(response(request.getRequestMessage())));
+                    if (serverObserver.isReady()) {
+                        serverObserver.request(1);
+                    }
+                    else {
+                        wasReady.set(false);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    log.warn("Bidi streaming call failed", throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    serverObserver.onCompleted();
+                }
+            };
+        }
+
+        private static SimpleResponse response(String message) {
+            return SimpleResponse.newBuilder().setResponseMessage(message).build();
+        }
+
     }
 
 }
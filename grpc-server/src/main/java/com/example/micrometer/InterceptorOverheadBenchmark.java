@@ -0,0 +1,190 @@
+package com.example.micrometer;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.protobuf.SimpleRequest;
+import io.grpc.testing.protobuf.SimpleResponse;
+import io.grpc.testing.protobuf.SimpleServiceGrpc;
+import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceBlockingStub;
+import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceImplBase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcServerInterceptor;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.propagation.Propagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of observing a unary call, measured over the in-process transport so that no
+ * network or serialization noise hides it. Client and server run on the calling thread
+ * (direct executors), which makes the allocated bytes of that thread the allocations of
+ * the whole call. Every mode is measured in a few iterations and the best one is logged:
+ * <ul>
+ * <li>{@code off} - no interceptors</li>
+ * <li>{@code metrics} - client and server interceptors with a registry that only has the
+ * meter handler</li>
+ * <li>{@code tracing} - client and server interceptors with the application registry,
+ * i.e. metrics, spans and header propagation</li>
+ * <li>{@code sampled} - the {@link SamplingAwareServerInterceptor}, with a client that
+ * traces {@code benchmark.sampling-probability} of the calls and just times the rest,
+ * like the sampling-aware client interceptor of grpc-client does for calls within a
+ * sampled or an unsampled span</li>
+ * </ul>
+ * Start it with {@code benchmark=interceptor-overhead}. Spans of the {@code tracing} mode
+ * are reported asynchronously, that part of the cost is not on the measured thread.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "interceptor-overhead")
+class InterceptorOverheadBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(InterceptorOverheadBenchmark.class);
+
+    private final ObservationRegistry observationRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Propagator propagator;
+
+    private final int calls;
+
+    private final int iterations;
+
+    private final double samplingProbability;
+
+    InterceptorOverheadBenchmark(ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            Propagator propagator, @Value("${benchmark.calls:50000}") int calls,
+            @Value("${benchmark.iterations:5}") int iterations,
+            @Value("${benchmark.sampling-probability:0.1}") double samplingProbability) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.propagator = propagator;
+        this.calls = calls;
+        this.iterations = iterations;
+        this.samplingProbability = samplingProbability;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        ObservationRegistry metricsOnly = ObservationRegistry.create();
+        metricsOnly.observationConfig().observationHandler(new DefaultMeterObservationHandler(this.meterRegistry));
+
+        log.info("Interceptor overhead benchmark, {} unary calls x {} iterations, sampled mode traces {} of the calls",
+                this.calls, this.iterations, this.samplingProbability);
+        log.info(String.format("%-8s %12s %12s %14s", "mode", "ns/call", "bytes/call", "overhead ns"));
+        double baseline = run("off", null, null);
+        run("metrics", new ObservationGrpcClientInterceptor(metricsOnly),
+                new ObservationGrpcServerInterceptor(metricsOnly), baseline);
+        run("tracing", new ObservationGrpcClientInterceptor(this.observationRegistry),
+                new ObservationGrpcServerInterceptor(this.observationRegistry), baseline);
+        run("sampled",
+                sampled(new ObservationGrpcClientInterceptor(this.observationRegistry),
+                        new ObservationGrpcClientInterceptor(metricsOnly)),
+                new SamplingAwareServerInterceptor(this.propagator,
+                        new ObservationGrpcServerInterceptor(this.observationRegistry),
+                        new ObservationGrpcServerInterceptor(metricsOnly)),
+                baseline);
+    }
+
+    private ClientInterceptor sampled(ClientInterceptor tracing, ClientInterceptor metrics) {
+        return new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                    CallOptions callOptions, Channel next) {
+                boolean sampled = ThreadLocalRandom.current().nextDouble() < samplingProbability;
+                return (sampled ? tracing : metrics).interceptCall(method, callOptions, next);
+            }
+        };
+    }
+
+    private double run(String mode, ClientInterceptor clientInterceptor, ServerInterceptor serverInterceptor)
+            throws Exception {
+        return run(mode, clientInterceptor, serverInterceptor, Double.NaN);
+    }
+
+    private double run(String mode, ClientInterceptor clientInterceptor, ServerInterceptor serverInterceptor,
+            double baseline) throws Exception {
+        String name = "interceptor-overhead-" + mode;
+        InProcessServerBuilder serverBuilder = InProcessServerBuilder.forName(name).directExecutor();
+        if (serverInterceptor != null) {
+            serverBuilder.addService(ServerInterceptors.intercept(new DirectEchoService(), serverInterceptor));
+        }
+        else {
+            serverBuilder.addService(new DirectEchoService());
+        }
+        Server server = serverBuilder.build().start();
+        InProcessChannelBuilder channelBuilder = InProcessChannelBuilder.forName(name).directExecutor();
+        if (clientInterceptor != null) {
+            channelBuilder.intercept(clientInterceptor);
+        }
+        ManagedChannel channel = channelBuilder.build();
+        try {
+            SimpleServiceBlockingStub stub = SimpleServiceGrpc.newBlockingStub(channel);
+            SimpleRequest request = SimpleRequest.newBuilder().setRequestMessage("Hello").build();
+            // warm up JIT, those numbers are not reported
+            call(stub, request, this.calls);
+            double[] nanos = new double[this.iterations];
+            double[] bytes = new double[this.iterations];
+            for (int i = 0; i < this.iterations; i++) {
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                call(stub, request, this.calls);
+                nanos[i] = (System.nanoTime() - start) / (double) this.calls;
+                bytes[i] = (allocatedBytes() - allocatedBefore) / (double) this.calls;
+            }
+            double best = Arrays.stream(nanos).min().orElseThrow();
+            log.info(String.format("%-8s %12.0f %12.0f %14s", mode, best, Arrays.stream(bytes).min().orElseThrow(),
+                    Double.isNaN(baseline) ? "-" : String.format("%.0f", best - baseline)));
+            return best;
+        }
+        finally {
+            channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void call(SimpleServiceBlockingStub stub, SimpleRequest request, int count) {
+        for (int i = 0; i < count; i++) {
+            stub.unaryRpc(request);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Echoes without any outbound call, only the cost of the call itself is of interest.
+     */
+    private static class DirectEchoService extends SimpleServiceImplBase {
+
+        @Override
+        public void unaryRpc(SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            responseObserver
+                .onNext(SimpleResponse.newBuilder().setResponseMessage(request.getRequestMessage()).build());
+            responseObserver.onCompleted();
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Observes single messages of the streaming RPCs. The call itself is always observed by
+ * the {@code ObservationGrpcServerInterceptor}, a long stream would however create one
+ * child observation per message, so those are sampled on their own with
+ * {@code echo-service.message-observation.probability} (none by default).
+ */
+@Component
+class MessageObservations {
+
+    private final ObservationRegistry registry;
+
+    private final double probability;
+
+    MessageObservations(ObservationRegistry registry,
+            @Value("${echo-service.message-observation.probability:0.0}") double probability) {
+        this.registry = registry;
+        this.probability = probability;
+    }
+
+    void observe(String rpc, Runnable action) {
+        if (!sampled()) {
+            action.run();
+            return;
+        }
+        Observation.createNotStarted("grpc.server.message", this.registry)
+            .lowCardinalityKeyValue("rpc", rpc)
+            .observe(action);
+    }
+
+    double probability() {
+        return this.probability;
+    }
+
+    private boolean sampled() {
+        return this.probability >= 1.0
+                || (this.probability > 0.0 && ThreadLocalRandom.current().nextDouble() < this.probability);
+    }
+
+}
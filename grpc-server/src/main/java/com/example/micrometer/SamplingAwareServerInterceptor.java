@@ -0,0 +1,70 @@
+package com.example.micrometer;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.propagation.Propagator;
+
+import java.util.List;
+
+/**
+ * Server side counterpart of the {@code SamplingAwareClientInterceptor} of grpc-client:
+ * only calls whose propagated trace context is sampled go through the tracing
+ * interceptor, calls without trace headers or with an unsampled context are just timed by
+ * the metrics interceptor. So the server follows the one decision the client made.
+ */
+class SamplingAwareServerInterceptor implements ServerInterceptor {
+
+    private static final Propagator.Getter<Metadata> GETTER = (headers, key) -> headers
+        .get(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER));
+
+    private final Propagator propagator;
+
+    private final List<Metadata.Key<String>> traceHeaders;
+
+    private final ServerInterceptor tracing;
+
+    private final ServerInterceptor metrics;
+
+    SamplingAwareServerInterceptor(Propagator propagator, ServerInterceptor tracing, ServerInterceptor metrics) {
+        this.propagator = propagator;
+        this.traceHeaders = propagator.fields()
+            .stream()
+            .map(header -> Metadata.Key.of(header, Metadata.ASCII_STRING_MARSHALLER))
+            .toList();
+        this.tracing = tracing;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+            ServerCallHandler<ReqT, RespT> next) {
+        return (sampled(headers) ? this.tracing : this.metrics).interceptCall(call, headers, next);
+    }
+
+    private boolean sampled(Metadata headers) {
+        if (!hasTraceContext(headers)) {
+            return false;
+        }
+        // the extracted context is only read, the tracing interceptor creates the span
+        Span extracted = this.propagator.extract(headers, GETTER).start();
+        try {
+            return Boolean.TRUE.equals(extracted.context().sampled());
+        }
+        finally {
+            extracted.abandon();
+        }
+    }
+
+    private boolean hasTraceContext(Metadata headers) {
+        for (Metadata.Key<String> key : this.traceHeaders) {
+            if (headers.containsKey(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.example.micrometer;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.protobuf.SimpleRequest;
+import io.grpc.testing.protobuf.SimpleResponse;
+import io.grpc.testing.protobuf.SimpleServiceGrpc;
+import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceStub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Measures messages/sec of the streaming RPCs with and without the
+ * {@code ObservationGrpcServerInterceptor} and derives the per-message cost of the
+ * interceptor from the difference. Both servers run in this JVM on ephemeral ports and
+ * share the {@code EchoService}, so {@code echo-service.message-observation.probability}
+ * applies to both. Start it with {@code benchmark=streaming}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "streaming")
+class StreamingBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingBenchmark.class);
+
+    private final GrpcServerApplication.EchoService echoService;
+
+    private final ServerInterceptor interceptor;
+
+    private final MessageObservations messageObservations;
+
+    private final int messages;
+
+    private final int streamMessages;
+
+    StreamingBenchmark(GrpcServerApplication.EchoService echoService, ServerInterceptor interceptor,
+            MessageObservations messageObservations, @Value("${benchmark.messages:200000}") int messages,
+            @Value("${echo-service.stream.messages:100}") int streamMessages) {
+        this.echoService = echoService;
+        this.interceptor = interceptor;
+        this.messageObservations = messageObservations;
+        this.messages = messages;
+        this.streamMessages = streamMessages;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Streaming benchmark, {} messages per run, per-message observation probability {}", this.messages,
+                this.messageObservations.probability());
+        log.info(String.format("%-16s %12s %12s %12s", "rpc", "plain msg/s", "observed", "overhead us"));
+        Server plain = start(ServerBuilder.forPort(0).addService(this.echoService));
+        Server observed = start(ServerBuilder.forPort(0).addService(this.echoService).intercept(this.interceptor));
+        try {
+            run("server-streaming", plain, observed, this::serverStreaming);
+            run("client-streaming", plain, observed, this::clientStreaming);
+            run("bidi-streaming", plain, observed, this::bidiStreaming);
+        }
+        finally {
+            plain.shutdownNow();
+            observed.shutdownNow();
+        }
+    }
+
+    private void run(String rpc, Server plain, Server observed, Function<SimpleServiceStub, Long> scenario)
+            throws InterruptedException {
+        double plainRate = measure(plain, scenario);
+        double observedRate = measure(observed, scenario);
+        log.info(String.format("%-16s %12.0f %12.0f %12.2f", rpc, plainRate, observedRate,
+                (1e6 / observedRate) - (1e6 / plainRate)));
+    }
+
+    private double measure(Server server, Function<SimpleServiceStub, Long> scenario) throws InterruptedException {
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", server.getPort()).usePlaintext().build();
+        try {
+            SimpleServiceStub stub = SimpleServiceGrpc.newStub(channel);
+            // warm up the connection and JIT, those numbers are not reported
+            scenario.apply(stub);
+            long start = System.nanoTime();
+            long count = scenario.apply(stub);
+            return count / ((System.nanoTime() - start) / 1e9);
+        }
+        finally {
+            channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private long serverStreaming(SimpleServiceStub stub) {
+        AtomicLong received = new AtomicLong();
+        SimpleRequest request = request("stream");
+        for (int call = 0; call < Math.max(1, this.messages / this.streamMessages); call++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            stub.serverStreamingRpc(request, new StreamObserver<>() {
+                @Override
+                public void onNext(SimpleResponse value) {
+                    received.incrementAndGet();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    done.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onCompleted() {
+                    done.complete(null);
+                }
+            });
+            done.join();
+        }
+        return received.get();
+    }
+
+    private long clientStreaming(SimpleServiceStub stub) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        stub.clientStreamingRpc(new RequestStreamer(this.messages, done));
+        done.join();
+        return this.messages;
+    }
+
+    private long bidiStreaming(SimpleServiceStub stub) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        stub.bidiStreamingRpc(new RequestStreamer(this.messages, done));
+        done.join();
+        return this.messages;
+    }
+
+    private static Server start(ServerBuilder<?> builder) throws IOException {
+        return builder.build().start();
+    }
+
+    private static SimpleRequest request(String message) {
+        return SimpleRequest.newBuilder().setRequestMessage(message).build();
+    }
+
+    /**
+     * Sends the requests only while the transport is ready to take them, i.e. honours the
+     * flow control of the server.
+     */
+    private static class RequestStreamer implements ClientResponseObserver<SimpleRequest, SimpleResponse> {
+
+        private final int messages;
+
+        private final CompletableFuture<Void> done;
+
+        private int sent;
+
+        RequestStreamer(int messages, CompletableFuture<Void> done) {
+            this.messages = messages;
+            this.done = done;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<SimpleRequest> requestStream) {
+            requestStream.setOnReadyHandler(() -> {
+                while (requestStream.isReady() && this.sent < this.messages) {
+                    requestStream.onNext(request("message " + this.sent++));
+                }
+                if (this.sent == this.messages) {
+                    this.sent++;
+                    requestStream.onCompleted();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(SimpleResponse value) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            this.done.complete(null);
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.micrometer;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.protobuf.SimpleRequest;
+import io.grpc.testing.protobuf.SimpleResponse;
+import io.grpc.testing.protobuf.SimpleServiceGrpc;
+import io.grpc.testing.protobuf.SimpleServiceGrpc.SimpleServiceStub;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for {@code EchoService.unaryRpc}: fires unary RPCs at the server running in
+ * this JVM with a fixed number of calls in flight and logs RPS, latency percentiles and
+ * the peak number of JVM threads. Start it with {@code benchmark=unary}, pointing
+ * {@code url} at the {@code echo-stub} sample. To see the numbers of the previous
+ * blocking handler on the default gRPC executor add {@code echo-service.blocking=true}
+ * and {@code grpc.executor.threads=0}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "unary")
+class UnaryRpcBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(UnaryRpcBenchmark.class);
+
+    private final int port;
+
+    private final List<Integer> concurrencies;
+
+    private final int requests;
+
+    private final boolean blocking;
+
+    UnaryRpcBenchmark(@Value("${server.port:9090}") int port,
+            @Value("${benchmark.concurrency:64,256,1024}") List<Integer> concurrencies,
+            @Value("${benchmark.requests:10000}") int requests,
+            @Value("${echo-service.blocking:false}") boolean blocking) {
+        this.port = port;
+        this.concurrencies = concurrencies;
+        this.requests = requests;
+        this.blocking = blocking;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", this.port).usePlaintext().build();
+        try {
+            SimpleServiceStub stub = SimpleServiceGrpc.newStub(channel);
+            log.info("Unary RPC benchmark, {} requests per run, {} handler", this.requests,
+                    this.blocking ? "blocking" : "async");
+            log.info(String.format("%6s %10s %10s %10s %8s %12s", "conc", "p50 ms", "p99 ms", "rpc/s", "errors",
+                    "peak threads"));
+            for (int concurrency : this.concurrencies) {
+                run(stub, concurrency);
+            }
+        }
+        finally {
+            channel.shutdownNow().awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void run(SimpleServiceStub stub, int concurrency) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer latency = Timer.builder("benchmark.latency").publishPercentiles(0.5, 0.99).register(registry);
+        LongAdder errors = new LongAdder();
+
+        // warm up connections and JIT, those numbers are not reported
+        send(stub, concurrency, Math.max(concurrency, this.requests / 10), null, errors);
+        errors.reset();
+        threads.resetPeakThreadCount();
+
+        long start = System.nanoTime();
+        send(stub, concurrency, this.requests, latency, errors);
+        long wallNanos = System.nanoTime() - start;
+
+        log.info(String.format("%6d %10.2f %10.2f %10.1f %8d %12d", concurrency, percentile(latency, 0.5),
+                percentile(latency, 0.99), this.requests / (wallNanos / 1e9), errors.sum(),
+                threads.getPeakThreadCount()));
+    }
+
+    private void send(SimpleServiceStub stub, int concurrency, int count, Timer latency, LongAdder errors)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(count);
+        SimpleRequest request = SimpleRequest.newBuilder().setRequestMessage("Hello").build();
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            stub.unaryRpc(request, new StreamObserver<>() {
+                @Override
+                public void onNext(SimpleResponse value) {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    errors.increment();
+                    finish();
+                }
+
+                @Override
+                public void onCompleted() {
+                    if (latency != null) {
+                        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                    finish();
+                }
+
+                private void finish() {
+                    inFlight.release();
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.micrometer;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends batches of messages to a single file, one line per message, with one
+ * {@link FileChannel} write per batch instead of a file per message. With {@code force}
+ * every batch is flushed to the storage device before the next one is written.
+ */
+class FileAppender implements DisposableBean {
+
+    private final FileChannel channel;
+
+    private final boolean force;
+
+    private final LongAdder messages = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    FileAppender(File file, boolean force) throws IOException {
+        Files.createDirectories(file.toPath().toAbsolutePath().getParent());
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.force = force;
+    }
+
+    void append(List<?> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 40);
+        for (Object line : batch) {
+            lines.append(line).append('\n');
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+        try {
+            // batches may be released on different threads, keep their lines together
+            synchronized (this.channel) {
+                while (buffer.hasRemaining()) {
+                    this.channel.write(buffer);
+                }
+                if (this.force) {
+                    this.channel.force(false);
+                }
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.messages.add(batch.size());
+        this.writes.increment();
+    }
+
+    long messages() {
+        return this.messages.sum();
+    }
+
+    long writes() {
+        return this.writes.sum();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        this.channel.close();
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the handoff between the thread that sends to a {@code QueueChannel} or
+ * {@code ExecutorChannel} and the thread that picks the message up.
+ * {@code files.handoff.queue.size} is the number of messages sent but not picked up yet
+ * and {@code files.handoff.latency} the time they spent waiting.
+ */
+class HandoffMetricsInterceptor implements ExecutorChannelInterceptor {
+
+    static final String SENT_NANOS_HEADER = "handoff-sent-nanos";
+
+    private final AtomicLong queued = new AtomicLong();
+
+    private final Timer latency;
+
+    HandoffMetricsInterceptor(MeterRegistry meterRegistry) {
+        Gauge.builder("files.handoff.queue.size", this.queued, AtomicLong::get)
+            .description("Messages handed off but not picked up yet")
+            .register(meterRegistry);
+        this.latency = Timer.builder("files.handoff.latency")
+            .description("Time between sending a message and a worker picking it up")
+            .register(meterRegistry);
+    }
+
+    // counted before the send, a worker may pick the message up before the send returns
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        this.queued.incrementAndGet();
+        return MessageBuilder.fromMessage(message).setHeader(SENT_NANOS_HEADER, System.nanoTime()).build();
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent || ex != null) {
+            this.queued.decrementAndGet();
+        }
+    }
+
+    // QueueChannel
+    @Override
+    public Message<?> postReceive(Message<?> message, MessageChannel channel) {
+        if (message != null) {
+            pickedUp(message);
+        }
+        return message;
+    }
+
+    // ExecutorChannel
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+        pickedUp(message);
+        return message;
+    }
+
+    private void pickedUp(Message<?> message) {
+        this.queued.decrementAndGet();
+        Long sentNanos = message.getHeaders().get(SENT_NANOS_HEADER, Long.class);
+        if (sentNanos != null) {
+            this.latency.record(System.nanoTime() - sentNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
@@ -14,11 +15,22 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.annotation.Gateway;
 import org.springframework.integration.annotation.MessagingGateway;
+import org.springframework.integration.core.GenericTransformer;
 import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.integration.dsl.MessageChannelSpec;
+import org.springframework.integration.dsl.MessageChannels;
+import org.springframework.integration.dsl.Pollers;
 import org.springframework.integration.file.dsl.Files;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
 
 @SpringBootApplication
 public class SpringIntegrationProducerApplication {
@@ -29,8 +41,9 @@ public class SpringIntegrationProducerApplication {
 
 }
 
-// TODO: This doesn't test anything because consumer and producer are ran in the same
-// thread
+// Sends one traced message on startup. The trace only crosses a thread boundary with the
+// queue and executor handoffs, with files.handoff=direct the consumer runs on the
+// producer's thread.
 @Component
 class Runner implements CommandLineRunner {
 
@@ -42,14 +55,21 @@ class Runner implements CommandLineRunner {
 
     private final FileGateway fileGateway;
 
-    Runner(ObservationRegistry observationRegistry, Tracer tracer, FileGateway fileGateway) {
+    private final String benchmark;
+
+    Runner(ObservationRegistry observationRegistry, Tracer tracer, FileGateway fileGateway,
+            @Value("${benchmark:}") String benchmark) {
         this.observationRegistry = observationRegistry;
         this.tracer = tracer;
         this.fileGateway = fileGateway;
+        this.benchmark = benchmark;
     }
 
     @Override
     public void run(String... args) {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         Observation.createNotStarted("spring.integration", observationRegistry).observe(() -> {
             String trace = tracer.currentSpan().context().traceId();
             log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from producer", trace);
@@ -67,19 +87,96 @@ interface FileGateway {
 
 }
 
+/**
+ * Writes the messages sent to {@code files.input} to disk. {@code files.handoff} decides
+ * how:
+ * <ul>
+ * <li>{@code queue} (default) hands them off to a bounded {@code QueueChannel} of
+ * {@code files.queue-capacity} messages that is polled by {@code files.workers} threads,
+ * a full queue blocks the sender</li>
+ * <li>{@code executor} hands them off to an {@code ExecutorChannel} whose executor queues
+ * up to {@code files.queue-capacity} messages, once it is full the sender processes the
+ * message itself</li>
+ * <li>{@code direct} writes a file per message on the sender's thread</li>
+ * </ul>
+ * After a handoff the messages are aggregated in batches of up to
+ * {@code files.batch-size}, or whatever arrived within {@code files.batch-timeout}, and
+ * every batch is appended to {@code files.append-file} by a single write.
+ */
 @Configuration
 class Config {
 
     private static final Logger log = LoggerFactory.getLogger(Config.class);
 
     @Bean
-    public IntegrationFlow files(Tracer tracer,
-            @Value("${outputFile:${java.io.tmpdir}/spring-integration-micrometer-samples/output}") File file) {
-        return IntegrationFlow.from("files.input").transform(message -> {
-            String traceId = tracer.currentSpan().context().traceId();
-            log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer", traceId);
+    public IntegrationFlow files(Tracer tracer, MeterRegistry meterRegistry, ThreadPoolTaskExecutor filesExecutor,
+            FileAppender fileAppender,
+            @Value("${outputFile:${java.io.tmpdir}/spring-integration-micrometer-samples/output}") File file,
+            @Value("${files.handoff:queue}") String handoff, @Value("${files.queue-capacity:10000}") int queueCapacity,
+            @Value("${files.batch-size:500}") int batchSize,
+            @Value("${files.batch-timeout:100ms}") Duration batchTimeout,
+            @Value("${files.log-every:1}") long logEvery) {
+        AtomicLong received = new AtomicLong();
+        GenericTransformer<Object, Object> consumer = message -> {
+            long count = received.incrementAndGet();
+            if (logEvery > 0 && count % logEvery == 0 && tracer.currentSpan() != null) {
+                String traceId = tracer.currentSpan().context().traceId();
+                log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer", traceId);
+            }
             return message;
-        }).handle(Files.outboundAdapter(file)).get();
+        };
+        if ("direct".equals(handoff)) {
+            return IntegrationFlow.from("files.input").transform(consumer).handle(Files.outboundAdapter(file)).get();
+        }
+        HandoffMetricsInterceptor interceptor = new HandoffMetricsInterceptor(meterRegistry);
+        MessageChannelSpec<?, ?> channel = "executor".equals(handoff)
+                ? MessageChannels.executor("files.handoff", filesExecutor).interceptor(interceptor)
+                : MessageChannels.queue("files.handoff", queueCapacity).interceptor(interceptor);
+        return IntegrationFlow.from("files.input").channel(channel).transform(consumer, endpoint -> {
+            endpoint.id("files.consumer");
+            if (!"executor".equals(handoff)) {
+                endpoint.poller(Pollers.fixedDelay(1).maxMessagesPerPoll(batchSize).taskExecutor(filesExecutor));
+            }
+        })
+            .aggregate(aggregator -> aggregator.id("files.aggregator")
+                .correlationStrategy(message -> "files")
+                .releaseStrategy(group -> group.size() >= batchSize)
+                .groupTimeout(batchTimeout.toMillis())
+                .sendPartialResultOnExpiry(true)
+                .expireGroupsUponCompletion(true)
+                .expireGroupsUponTimeout(true))
+            .handle(List.class, (batch, headers) -> {
+                fileAppender.append(batch);
+                return null;
+            }, endpoint -> endpoint.id("files.writer"))
+            .get();
+    }
+
+    @Bean
+    ThreadPoolTaskExecutor filesExecutor(@Value("${files.handoff:queue}") String handoff,
+            @Value("${files.workers:4}") int workers, @Value("${files.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("files-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        if ("executor".equals(handoff)) {
+            executor.setQueueCapacity(queueCapacity);
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        else {
+            // a poll that finds all workers busy is skipped, the messages stay queued
+            // in the channel until the next one
+            executor.setQueueCapacity(0);
+            executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        }
+        return executor;
+    }
+
+    @Bean
+    FileAppender fileAppender(
+            @Value("${files.append-file:${java.io.tmpdir}/spring-integration-micrometer-samples/output/messages.txt}") File file,
+            @Value("${files.force:false}") boolean force) throws IOException {
+        return new FileAppender(file, force);
     }
 
 }
@@ -0,0 +1,89 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends {@code benchmark.messages} messages through the {@link FileGateway} and waits
+ * until all of them were appended to the file. Logs messages/sec, the number of writes
+ * and the mean and max handoff latency. Start it with {@code benchmark=throughput}, once
+ * per {@code files.handoff} mode that should be compared; with {@code direct} there is a
+ * file per message and no handoff latency. Adding {@code files.log-every} keeps the
+ * consumer from logging every message.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    private final FileGateway fileGateway;
+
+    private final FileAppender fileAppender;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String handoff;
+
+    private final int messages;
+
+    ThroughputBenchmark(FileGateway fileGateway, FileAppender fileAppender, MeterRegistry meterRegistry,
+            @Value("${files.handoff:queue}") String handoff, @Value("${benchmark.messages:100000}") int messages) {
+        this.fileGateway = fileGateway;
+        this.fileAppender = fileAppender;
+        this.meterRegistry = meterRegistry;
+        this.handoff = handoff;
+        this.messages = messages;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        log.info("Throughput benchmark, {} messages with [{}] handoff", this.messages, this.handoff);
+        // warm up the JIT, those numbers are not reported
+        measure(this.messages / 10);
+        Result result = measure(this.messages);
+        log.info(String.format("%10s %12s %10s %16s %16s", "handoff", "messages/s", "writes", "handoff mean ms",
+                "handoff max ms"));
+        log.info(String.format("%10s %12.1f %10d %16.3f %16.3f", this.handoff, result.messagesPerSecond(),
+                result.writes(), result.handoffMeanMillis(), result.handoffMaxMillis()));
+    }
+
+    Result measure(int count) throws InterruptedException {
+        long messagesBefore = this.fileAppender.messages();
+        long writesBefore = this.fileAppender.writes();
+        Timer handoff = this.meterRegistry.find("files.handoff.latency").timer();
+        long handoffCountBefore = handoff != null ? handoff.count() : 0;
+        double handoffTotalBefore = handoff != null ? handoff.totalTime(TimeUnit.MILLISECONDS) : 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            this.fileGateway.placeOrder("HELLO " + i);
+        }
+        boolean direct = "direct".equals(this.handoff);
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (!direct && this.fileAppender.messages() - messagesBefore < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long wallNanos = System.nanoTime() - start;
+        long written = direct ? count : this.fileAppender.messages() - messagesBefore;
+        long handedOff = handoff != null ? handoff.count() - handoffCountBefore : 0;
+        double handoffMean = handedOff > 0 ? (handoff.totalTime(TimeUnit.MILLISECONDS) - handoffTotalBefore) / handedOff
+                : 0;
+        // the max decays over time, it may include the previous run
+        double handoffMax = handoff != null ? handoff.max(TimeUnit.MILLISECONDS) : 0;
+        return new Result(written / (wallNanos / 1e9), written, this.fileAppender.writes() - writesBefore, handoffMean,
+                handoffMax);
+    }
+
+    record Result(double messagesPerSecond, long written, long writes, double handoffMeanMillis,
+            double handoffMaxMillis) {
+    }
+
+}
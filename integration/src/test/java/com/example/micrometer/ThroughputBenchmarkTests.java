@@ -0,0 +1,65 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+@AutoConfigureObservability
+@SpringBootTest(properties = "files.log-every=100000")
+class ThroughputBenchmarkTests {
+
+    @TempDir
+    static Path directory;
+
+    @DynamicPropertySource
+    static void appendFile(DynamicPropertyRegistry registry) {
+        registry.add("files.append-file", () -> directory.resolve("messages.txt").toString());
+    }
+
+    @Autowired
+    FileGateway fileGateway;
+
+    @Autowired
+    FileAppender fileAppender;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_append_every_message_to_the_file_in_batches() throws Exception {
+        // the runner sends a message on startup
+        await().atMost(Duration.ofSeconds(10)).until(() -> this.fileAppender.messages() == 1);
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(this.fileGateway, this.fileAppender, this.meterRegistry,
+                "queue", 1000);
+
+        ThroughputBenchmark.Result result = benchmark.measure(1000);
+
+        then(result.written()).isEqualTo(1000);
+        then(result.writes()).isLessThan(1000);
+        then(lines()).isEqualTo(1001);
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("files.handoff.latency")
+            .hasMeterWithName("files.handoff.queue.size");
+    }
+
+    private long lines() throws IOException {
+        try (var lines = Files.lines(directory.resolve("messages.txt"))) {
+            return lines.count();
+        }
+    }
+
+}
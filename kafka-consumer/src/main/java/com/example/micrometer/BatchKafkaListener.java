@@ -0,0 +1,96 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Tracer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch counterpart of {@link MyKafkaListener}. Creating an observation for every record
+ * is the main CPU cost of a consumer, so records are processed without one and the trace
+ * context propagated in the headers of a record is only restored when the record is
+ * actually logged (every {@code batch-listener.log-every} offsets, never when it is
+ * {@code 0}) or forwarded to {@code batch-listener.forward-topic}, within a single
+ * observation when it is both. The listener is only started with
+ * {@code batch-listener.enabled=true}.
+ */
+class BatchKafkaListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchKafkaListener.class);
+
+    private final Tracer tracer;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+
+    private final long logEvery;
+
+    private final String forwardTopic;
+
+    private final LongAdder processed = new LongAdder();
+
+    BatchKafkaListener(Tracer tracer, ObservationRegistry observationRegistry,
+            KafkaTemplate<Object, Object> kafkaTemplate, long logEvery, String forwardTopic) {
+        this.tracer = tracer;
+        this.observationRegistry = observationRegistry;
+        this.kafkaTemplate = kafkaTemplate;
+        this.logEvery = logEvery;
+        this.forwardTopic = forwardTopic;
+    }
+
+    @KafkaListener(id = "batch-listener", topics = "${batch-listener.topic:mytopic}", groupId = "batch-group",
+            containerFactory = "batchListenerContainerFactory", autoStartup = "${batch-listener.enabled:false}")
+    void onBatch(List<ConsumerRecord<String, String>> records) {
+        boolean forward = StringUtils.hasText(this.forwardTopic);
+        for (ConsumerRecord<String, String> record : records) {
+            process(record);
+            boolean logged = this.logEvery > 0 && record.offset() % this.logEvery == 0;
+            if (!forward && !logged) {
+                continue;
+            }
+            withTraceContext(record, () -> {
+                if (forward) {
+                    this.kafkaTemplate.send(this.forwardTopic, record.key(), record.value());
+                }
+                if (logged) {
+                    log.info("<TRACE:{}> Got record <{}-{}@{}>", this.tracer.currentSpan().context().traceId(),
+                            record.topic(), record.partition(), record.offset());
+                }
+            });
+        }
+    }
+
+    long processed() {
+        return this.processed.sum();
+    }
+
+    private void process(ConsumerRecord<String, String> record) {
+        this.processed.increment();
+    }
+
+    /**
+     * Runs the action in an observation that continues the trace propagated with the
+     * record, the tracing handler extracts it from the headers when it starts.
+     */
+    private void withTraceContext(ConsumerRecord<String, String> record, Runnable action) {
+        ReceiverContext<ConsumerRecord<String, String>> context = new ReceiverContext<>((carrier, key) -> {
+            Header header = carrier.headers().lastHeader(key);
+            return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        });
+        context.setCarrier(record);
+        Observation.createNotStarted("on-message", () -> context, this.observationRegistry).observe(action);
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerPostProcessor;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the consumers created for the listener containers to record
+ * {@code kafka.listener.lag}, the number of records each assigned partition is behind its
+ * log end offset after every poll, and {@code kafka.listener.commit}, the time a
+ * synchronous commit or an asynchronous one up to its callback takes. Both are tagged
+ * with the {@code spring.kafka.listener.id} of the listener observations of the container
+ * the consumer runs in, which the container announces on the consumer thread before the
+ * first poll (see {@link #consumerStarting(String)}), and with the consumer group. The
+ * lag of a partition is removed once the partition is revoked or lost. The time the last
+ * poll on the current thread returned is kept for the
+ * {@link ListenerLatencyObservationHandler}.
+ */
+class ConsumerLatencyPostProcessor<K, V> implements ConsumerPostProcessor<K, V> {
+
+    private static final String LISTENER_ID = KafkaListenerObservation.ListenerLowCardinalityTags.LISTENER_ID
+        .asString();
+
+    private static final ThreadLocal<Long> lastPoll = new ThreadLocal<>();
+
+    private static final ThreadLocal<String> listenerId = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<PartitionKey, PartitionLag> lags = new ConcurrentHashMap<>();
+
+    ConsumerLatencyPostProcessor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} of the end of the last poll on this thread or
+     * {@code 0} when this thread did not poll
+     */
+    static long lastPollNanos() {
+        Long polledAt = lastPoll.get();
+        return polledAt != null ? polledAt : 0;
+    }
+
+    /**
+     * Tags the meters of the consumer polled on this thread from now on with the given
+     * listener id, {@code null} for a container without one.
+     */
+    static void consumerStarting(String listenerId) {
+        ConsumerLatencyPostProcessor.listenerId.set(listenerId != null ? listenerId : "none");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Consumer<K, V> apply(Consumer<K, V> consumer) {
+        return (Consumer<K, V>) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Consumer.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("commitSync")) {
+                        Timer.Sample sample = Timer.start(this.meterRegistry);
+                        try {
+                            return invoke(consumer, method, args);
+                        }
+                        finally {
+                            sample.stop(commitTimer(consumer));
+                        }
+                    }
+                    if (name.equals("commitAsync") && args != null
+                            && args[args.length - 1] instanceof OffsetCommitCallback callback) {
+                        Timer.Sample sample = Timer.start(this.meterRegistry);
+                        Timer timer = commitTimer(consumer);
+                        args[args.length - 1] = (OffsetCommitCallback) (offsets, exception) -> {
+                            sample.stop(timer);
+                            callback.onComplete(offsets, exception);
+                        };
+                        return invoke(consumer, method, args);
+                    }
+                    if (name.equals("subscribe") && args != null
+                            && args[args.length - 1] instanceof ConsumerRebalanceListener listener) {
+                        args[args.length - 1] = removingLagOnRevoke(consumer, listener);
+                        return invoke(consumer, method, args);
+                    }
+                    Object result = invoke(consumer, method, args);
+                    if (name.equals("poll")) {
+                        lastPoll.set(System.nanoTime());
+                        recordLag(consumer);
+                    }
+                    return result;
+                });
+    }
+
+    private void recordLag(Consumer<K, V> consumer) {
+        String group = group(consumer);
+        for (TopicPartition partition : consumer.assignment()) {
+            consumer.currentLag(partition)
+                .ifPresent(lag -> this.lags
+                    .computeIfAbsent(new PartitionKey(listenerId(), group, partition), this::registerLag)
+                    .value()
+                    .set(lag));
+        }
+    }
+
+    private PartitionLag registerLag(PartitionKey key) {
+        AtomicLong value = new AtomicLong();
+        Gauge gauge = Gauge.builder("kafka.listener.lag", value, AtomicLong::get)
+            .description("Records the partition is behind its log end offset after the last poll")
+            .tags(LISTENER_ID, key.listenerId(), "group", key.group(), "topic", key.partition().topic(), "partition",
+                    String.valueOf(key.partition().partition()))
+            .register(this.meterRegistry);
+        return new PartitionLag(value, gauge);
+    }
+
+    private ConsumerRebalanceListener removingLagOnRevoke(Consumer<K, V> consumer, ConsumerRebalanceListener listener) {
+        return new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                listener.onPartitionsRevoked(partitions);
+                removeLag(consumer, partitions);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+                listener.onPartitionsAssigned(partitions);
+            }
+
+            @Override
+            public void onPartitionsLost(Collection<TopicPartition> partitions) {
+                listener.onPartitionsLost(partitions);
+                removeLag(consumer, partitions);
+            }
+        };
+    }
+
+    private void removeLag(Consumer<K, V> consumer, Collection<TopicPartition> partitions) {
+        String group = group(consumer);
+        for (TopicPartition partition : partitions) {
+            PartitionLag lag = this.lags.remove(new PartitionKey(listenerId(), group, partition));
+            if (lag != null) {
+                this.meterRegistry.remove(lag.gauge());
+            }
+        }
+    }
+
+    private Timer commitTimer(Consumer<K, V> consumer) {
+        return Timer.builder("kafka.listener.commit")
+            .description("Time until the broker acknowledged an offset commit")
+            .tags(LISTENER_ID, listenerId(), "group", group(consumer))
+            .register(this.meterRegistry);
+    }
+
+    private static String listenerId() {
+        String id = listenerId.get();
+        return id != null ? id : "none";
+    }
+
+    private static String group(Consumer<?, ?> consumer) {
+        try {
+            return consumer.groupMetadata().groupId();
+        }
+        catch (KafkaException ex) {
+            return "none";
+        }
+    }
+
+    private static Object invoke(Consumer<?, ?> consumer, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(consumer, args);
+        }
+        catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private record PartitionKey(String listenerId, String group, TopicPartition partition) {
+    }
+
+    private record PartitionLag(AtomicLong value, Gauge gauge) {
+    }
+
+}
@@ -7,13 +7,18 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.messaging.Message;
 
 @SpringBootApplication
@@ -29,9 +34,11 @@ public class KafkaConsumerApplication implements CommandLineRunner {
 
     }
 
+    // raise spring.kafka.listener.concurrency together with the partitions, a partition
+    // is consumed by at most one listener thread
     @Bean
-    NewTopic myTopic() {
-        return new NewTopic("mytopic", 1, (short) 1);
+    NewTopic myTopic(@Value("${mytopic.partitions:1}") int partitions) {
+        return new NewTopic("mytopic", partitions, (short) 1);
     }
 
     @Bean
@@ -39,6 +46,23 @@ public class KafkaConsumerApplication implements CommandLineRunner {
         return new MyKafkaListener(tracer, observationRegistry);
     }
 
+    @Bean
+    ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        return factory;
+    }
+
+    @Bean
+    BatchKafkaListener batchKafkaListener(Tracer tracer, ObservationRegistry observationRegistry,
+            KafkaTemplate<Object, Object> kafkaTemplate, @Value("${batch-listener.log-every:1000}") long logEvery,
+            @Value("${batch-listener.forward-topic:}") String forwardTopic) {
+        return new BatchKafkaListener(tracer, observationRegistry, kafkaTemplate, logEvery, forwardTopic);
+    }
+
 }
 
 class MyKafkaListener {
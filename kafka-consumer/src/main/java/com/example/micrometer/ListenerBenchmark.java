@@ -0,0 +1,172 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single-record listener, observed per record like {@link MyKafkaListener},
+ * with the {@link BatchKafkaListener} that restores the trace context only for the
+ * records it logs. Both consume the same {@code benchmark.records} records, produced with
+ * trace headers up front, from the beginning of the topic with their own consumer group.
+ * Start it with {@code benchmark=listener}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "listener")
+class ListenerBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerBenchmark.class);
+
+    private final ConcurrentKafkaListenerContainerFactory<Object, Object> recordFactory;
+
+    private final ConcurrentKafkaListenerContainerFactory<Object, Object> batchFactory;
+
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Tracer tracer;
+
+    private final String topic;
+
+    private final int records;
+
+    private final int maxPollRecords;
+
+    private final long logEvery;
+
+    ListenerBenchmark(
+            @Qualifier("kafkaListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<Object, Object> recordFactory,
+            @Qualifier("batchListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<Object, Object> batchFactory,
+            KafkaTemplate<Object, Object> kafkaTemplate, KafkaAdmin kafkaAdmin, ObservationRegistry observationRegistry,
+            Tracer tracer, @Value("${benchmark.topic:listener-benchmark}") String topic,
+            @Value("${benchmark.records:100000}") int records,
+            @Value("${benchmark.max-poll-records:500}") int maxPollRecords,
+            @Value("${batch-listener.log-every:1000}") long logEvery) {
+        this.recordFactory = recordFactory;
+        this.batchFactory = batchFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaAdmin = kafkaAdmin;
+        this.observationRegistry = observationRegistry;
+        this.tracer = tracer;
+        this.topic = topic;
+        this.records = records;
+        this.maxPollRecords = maxPollRecords;
+        this.logEvery = logEvery;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        this.kafkaAdmin.createOrModifyTopics(TopicBuilder.name(this.topic).partitions(1).replicas(1).build());
+        log.info("Producing {} records with trace headers to [{}]", this.records, this.topic);
+        Observation.createNotStarted("listener-benchmark.produce", this.observationRegistry).observe(() -> {
+            for (int i = 0; i < this.records; i++) {
+                this.kafkaTemplate.send(this.topic, "record " + i);
+            }
+            this.kafkaTemplate.flush();
+        });
+
+        log.info("Listener benchmark, {} records, max.poll.records={}, a record is logged every {} offsets",
+                this.records, this.maxPollRecords, this.logEvery);
+        ListenerFactory recordListener = latch -> (MessageListener<String, String>) record -> {
+            onMessage(record);
+            latch.countDown();
+        };
+        ListenerFactory batchListener = latch -> {
+            BatchKafkaListener listener = new BatchKafkaListener(this.tracer, this.observationRegistry,
+                    this.kafkaTemplate, this.logEvery, null);
+            return (BatchMessageListener<String, String>) batch -> {
+                listener.onBatch(batch);
+                batch.forEach(record -> latch.countDown());
+            };
+        };
+        // warm up the JIT with a pass over the topic per listener, those numbers are not
+        // reported
+        measure("record", this.recordFactory, recordListener, false);
+        measure("batch", this.batchFactory, batchListener, false);
+        log.info(String.format("%-8s %12s %14s", "listener", "records/s", "cpu us/record"));
+        measure("record", this.recordFactory, recordListener, true);
+        measure("batch", this.batchFactory, batchListener, true);
+    }
+
+    // the work of MyKafkaListener, but logging only as often as the batch listener
+    private void onMessage(ConsumerRecord<String, String> record) {
+        Observation.createNotStarted("on-message", this.observationRegistry).observe(() -> {
+            if (this.logEvery > 0 && record.offset() % this.logEvery == 0) {
+                log.info("<TRACE:{}> Got record <{}-{}@{}>", this.tracer.currentSpan().context().traceId(),
+                        record.topic(), record.partition(), record.offset());
+            }
+        });
+    }
+
+    private void measure(String name, ConcurrentKafkaListenerContainerFactory<Object, Object> factory,
+            ListenerFactory listenerFactory, boolean report) throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(this.records);
+        ConcurrentMessageListenerContainer<Object, Object> container = factory.createContainer(this.topic);
+        container.getContainerProperties().setGroupId("listener-benchmark-" + name + "-" + UUID.randomUUID());
+        container.getContainerProperties().setKafkaConsumerProperties(consumerProperties());
+        container.setupMessageListener(listenerFactory.create(latch));
+        long cpuBefore = processCpuTime();
+        long start = System.nanoTime();
+        container.start();
+        try {
+            if (!latch.await(5, TimeUnit.MINUTES)) {
+                log.warn("Listener [{}] only got {} of {} records", name, this.records - latch.getCount(),
+                        this.records);
+            }
+            long wallNanos = System.nanoTime() - start;
+            long cpuNanos = processCpuTime() - cpuBefore;
+            if (report) {
+                log.info(String.format("%-8s %12.1f %14.2f", name, this.records / (wallNanos / 1e9),
+                        cpuNanos / 1e3 / this.records));
+            }
+        }
+        finally {
+            container.stop();
+        }
+    }
+
+    private Properties consumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(this.maxPollRecords));
+        return properties;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    @FunctionalInterface
+    private interface ListenerFactory {
+
+        Object create(CountDownLatch latch);
+
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+import org.springframework.kafka.support.micrometer.KafkaRecordReceiverContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long a record waited before the listener observation started, tagged with
+ * the listener id of that observation. {@code kafka.listener.record.age} is the time
+ * since the record was produced (or appended to the log) and
+ * {@code kafka.listener.poll.to.process} is the time since the poll that fetched and
+ * deserialized it returned, so whatever remains of the age was spent on the broker or in
+ * the fetch. The duration of the handler itself is the {@code spring.kafka.listener}
+ * timer of the observation.
+ */
+class ListenerLatencyObservationHandler implements ObservationHandler<KafkaRecordReceiverContext> {
+
+    private final MeterRegistry meterRegistry;
+
+    ListenerLatencyObservationHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onStart(KafkaRecordReceiverContext context) {
+        ConsumerRecord<?, ?> record = context.getRecord();
+        Tags tags = Tags.of(KafkaListenerObservation.ListenerLowCardinalityTags.LISTENER_ID.asString(),
+                context.getListenerId(), "topic", record.topic());
+        if (record.timestampType() != TimestampType.NO_TIMESTAMP_TYPE) {
+            Timer.builder("kafka.listener.record.age")
+                .description("Time between the record timestamp and the start of its processing")
+                .tags(tags)
+                .register(this.meterRegistry)
+                .record(Math.max(0, System.currentTimeMillis() - record.timestamp()), TimeUnit.MILLISECONDS);
+        }
+        long polledAt = ConsumerLatencyPostProcessor.lastPollNanos();
+        if (polledAt != 0) {
+            Timer.builder("kafka.listener.poll.to.process")
+                .description(
+                        "Time between the return of the poll that fetched a record and the start of its processing")
+                .tags(tags)
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - polledAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof KafkaRecordReceiverContext;
+    }
+
+}
@@ -1,9 +1,23 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.event.ConsumerStartingEvent;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * In this class we'll add all the manual configuration required for Observability to
@@ -13,11 +27,58 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 public class ManualConfiguration {
 
     @Autowired
+    @Qualifier("kafkaListenerContainerFactory")
     ConcurrentKafkaListenerContainerFactory concurrentKafkaListenerContainerFactory;
 
+    @Autowired
+    KafkaTemplate kafkaTemplate;
+
+    @Autowired
+    List<ConcurrentKafkaListenerContainerFactory<?, ?>> listenerContainerFactories;
+
+    @Value("${listener.virtual-threads:false}")
+    boolean virtualThreads;
+
     @PostConstruct
     void setup() {
         this.concurrentKafkaListenerContainerFactory.getContainerProperties().setObservationEnabled(true);
+        // records forwarded by the batch listener carry on the trace
+        this.kafkaTemplate.setObservationEnabled(true);
+        if (this.virtualThreads) {
+            TaskExecutorAdapter executor = new TaskExecutorAdapter(virtualThreadPerTaskExecutor());
+            this.listenerContainerFactories
+                .forEach(factory -> factory.getContainerProperties().setListenerTaskExecutor(executor));
+        }
+    }
+
+    // static, the listener container factory autowired above depends on the consumer
+    // factory that gets customized here
+    @Bean
+    static DefaultKafkaConsumerFactoryCustomizer consumerLatencyCustomizer(MeterRegistry meterRegistry) {
+        return consumerFactory -> consumerFactory.addPostProcessor(new ConsumerLatencyPostProcessor<>(meterRegistry));
+    }
+
+    // published on the consumer thread before the first poll
+    @EventListener
+    void consumerStarting(ConsumerStartingEvent event) {
+        ConsumerLatencyPostProcessor.consumerStarting(event.getSource(MessageListenerContainer.class).getListenerId());
+    }
+
+    @Bean
+    static ListenerLatencyObservationHandler listenerLatencyObservationHandler(MeterRegistry meterRegistry) {
+        return new ListenerLatencyObservationHandler(meterRegistry);
+    }
+
+    // we compile against Java 17, so the executor is looked up when running on 21+
+    private static Executor virtualThreadPerTaskExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(
+                    "listener.virtual-threads=true requires Java 21 or later, running on Java " + Runtime.version(),
+                    ex);
+        }
     }
 
 }
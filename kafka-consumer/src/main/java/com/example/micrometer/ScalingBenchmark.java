@@ -0,0 +1,236 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures how the listener scales with the container concurrency, with and without
+ * observations. Every run gets its own topic with {@code benchmark.partitions} partitions
+ * (at least the highest concurrency) that is filled by the traced {@link KafkaTemplate}
+ * while the container consumes it, and that is deleted again afterwards. The lag is the
+ * consumer lag of the group, the log-end offsets of the partitions minus the committed
+ * offsets, sampled every 100 ms through the admin client. Handlers that wait on I/O can
+ * be simulated with {@code benchmark.processing-micros}. Start it with
+ * {@code benchmark=scaling}, adding {@code listener.virtual-threads=true} runs the
+ * consumers on virtual threads.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "scaling")
+class ScalingBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ScalingBenchmark.class);
+
+    private final ConcurrentKafkaListenerContainerFactory<Object, Object> factory;
+
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final List<Integer> concurrencies;
+
+    private final int partitions;
+
+    private final int records;
+
+    private final long processingNanos;
+
+    ScalingBenchmark(
+            @Qualifier("kafkaListenerContainerFactory") ConcurrentKafkaListenerContainerFactory<Object, Object> factory,
+            KafkaTemplate<Object, Object> kafkaTemplate, KafkaAdmin kafkaAdmin, ObservationRegistry observationRegistry,
+            @Value("${benchmark.concurrency:1,2,4,8}") List<Integer> concurrencies,
+            @Value("${benchmark.partitions:0}") int partitions, @Value("${benchmark.records:50000}") int records,
+            @Value("${benchmark.processing-micros:0}") long processingMicros) {
+        this.factory = factory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.kafkaAdmin = kafkaAdmin;
+        this.observationRegistry = observationRegistry;
+        this.concurrencies = concurrencies;
+        this.partitions = Math.max(partitions, Collections.max(concurrencies));
+        this.records = records;
+        this.processingNanos = TimeUnit.MICROSECONDS.toNanos(processingMicros);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Scaling benchmark, {} records per run over {} partitions, {} us processing per record", this.records,
+                this.partitions, TimeUnit.NANOSECONDS.toMicros(this.processingNanos));
+        // warm up the JIT, those numbers are not reported
+        measure(this.partitions, true, Math.max(1, this.records / 10));
+        log.info(String.format("%6s %9s %12s %14s %10s %10s", "conc", "observed", "records/s", "cpu us/record",
+                "max lag", "avg lag"));
+        for (int concurrency : this.concurrencies) {
+            for (boolean observed : new boolean[] { false, true }) {
+                Result result = measure(concurrency, observed, this.records);
+                log.info(String.format("%6d %9s %12.1f %14.2f %10d %10.1f", concurrency, observed,
+                        result.recordsPerSecond(), result.cpuMicrosPerRecord(), result.maxLag(), result.averageLag()));
+            }
+        }
+    }
+
+    Result measure(int concurrency, boolean observed, int count) throws InterruptedException {
+        String topic = "scaling-benchmark-" + UUID.randomUUID();
+        this.kafkaAdmin.createOrModifyTopics(TopicBuilder.name(topic).partitions(this.partitions).replicas(1).build());
+        LongAdder processed = new LongAdder();
+        CountDownLatch latch = new CountDownLatch(count);
+        ConcurrentMessageListenerContainer<Object, Object> container = this.factory.createContainer(topic);
+        container.setConcurrency(concurrency);
+        container.getContainerProperties().setGroupId(topic);
+        container.getContainerProperties().setObservationEnabled(observed);
+        container.getContainerProperties().setKafkaConsumerProperties(consumerProperties());
+        container.setupMessageListener((MessageListener<String, String>) record -> {
+            if (observed) {
+                Observation.createNotStarted("on-message", this.observationRegistry).observe(() -> process(record));
+            }
+            else {
+                process(record);
+            }
+            processed.increment();
+            latch.countDown();
+        });
+        AtomicLong maxLag = new AtomicLong();
+        LongAdder lagSum = new LongAdder();
+        LongAdder lagSamples = new LongAdder();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        AdminClient adminClient = AdminClient.create(this.kafkaAdmin.getConfigurationProperties());
+        long cpuBefore = processCpuTime();
+        long start = System.nanoTime();
+        container.start();
+        try {
+            sampler.scheduleAtFixedRate(() -> {
+                long lag = lag(adminClient, topic);
+                if (lag >= 0) {
+                    maxLag.accumulateAndGet(lag, Math::max);
+                    lagSum.add(lag);
+                    lagSamples.increment();
+                }
+            }, 0, 100, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < count; i++) {
+                this.kafkaTemplate.send(topic, String.valueOf(i), "record " + i);
+            }
+            this.kafkaTemplate.flush();
+            if (!latch.await(5, TimeUnit.MINUTES)) {
+                log.warn("Only {} of {} records were processed with concurrency {}", processed.sum(), count,
+                        concurrency);
+            }
+            long wallNanos = System.nanoTime() - start;
+            long cpuNanos = processCpuTime() - cpuBefore;
+            return new Result(count / (wallNanos / 1e9), cpuNanos / 1e3 / count, maxLag.get(),
+                    lagSamples.sum() > 0 ? (double) lagSum.sum() / lagSamples.sum() : 0, processed.sum());
+        }
+        finally {
+            sampler.shutdownNow();
+            sampler.awaitTermination(10, TimeUnit.SECONDS);
+            container.stop();
+            try (adminClient) {
+                deleteTopic(adminClient, topic);
+            }
+        }
+    }
+
+    /**
+     * Returns the lag of the group named after the topic, or {@code -1} when the offsets
+     * could not be read. The committed offsets are read first, so they never run ahead of
+     * the log-end offsets, and a partition without a commit yet lags by all of its
+     * records.
+     */
+    private long lag(AdminClient adminClient, String topic) {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(topic)
+                .partitionsToOffsetAndMetadata()
+                .get(10, TimeUnit.SECONDS);
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            for (int partition = 0; partition < this.partitions; partition++) {
+                latest.put(new TopicPartition(topic, partition), OffsetSpec.latest());
+            }
+            long lag = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResultInfo> end : adminClient.listOffsets(latest)
+                .all()
+                .get(10, TimeUnit.SECONDS)
+                .entrySet()) {
+                OffsetAndMetadata offset = committed.get(end.getKey());
+                lag += Math.max(0, end.getValue().offset() - (offset != null ? offset.offset() : 0));
+            }
+            return lag;
+        }
+        catch (ExecutionException | TimeoutException ex) {
+            log.debug("Failed to read the offsets of topic [{}]", topic, ex);
+            return -1;
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private void deleteTopic(AdminClient adminClient, String topic) {
+        try {
+            adminClient.deleteTopics(List.of(topic)).all().get(30, TimeUnit.SECONDS);
+        }
+        catch (ExecutionException | TimeoutException ex) {
+            log.warn("Failed to delete topic [{}]", topic, ex);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(ConsumerRecord<String, String> record) {
+        if (this.processingNanos > 0) {
+            LockSupport.parkNanos(this.processingNanos);
+        }
+    }
+
+    private static Properties consumerProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return properties;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    record Result(double recordsPerSecond, double cpuMicrosPerRecord, long maxLag, double averageLag, long processed) {
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ConsumerLatencyPostProcessorTests {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    TopicPartition partition = new TopicPartition("mytopic", 0);
+
+    @AfterEach
+    void clearListenerId() {
+        ConsumerLatencyPostProcessor.consumerStarting(null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_tag_the_lag_with_the_listener_and_remove_it_once_the_partition_is_revoked() {
+        Consumer<String, String> consumer = mock(Consumer.class);
+        given(consumer.groupMetadata()).willReturn(new ConsumerGroupMetadata("group"));
+        given(consumer.assignment()).willReturn(Set.of(this.partition));
+        given(consumer.currentLag(this.partition)).willReturn(OptionalLong.of(42));
+        Consumer<String, String> observed = new ConsumerLatencyPostProcessor<String, String>(this.meterRegistry)
+            .apply(consumer);
+        ConsumerLatencyPostProcessor.consumerStarting("my-listener-0");
+
+        observed.subscribe(List.of("mytopic"), mock(ConsumerRebalanceListener.class));
+        observed.poll(Duration.ofMillis(100));
+
+        then(this.meterRegistry.get("kafka.listener.lag")
+            .tags("spring.kafka.listener.id", "my-listener-0", "group", "group", "partition", "0")
+            .gauge()
+            .value()).isEqualTo(42);
+
+        ArgumentCaptor<ConsumerRebalanceListener> listener = ArgumentCaptor.forClass(ConsumerRebalanceListener.class);
+        verify(consumer).subscribe(any(Collection.class), listener.capture());
+        listener.getValue().onPartitionsRevoked(List.of(this.partition));
+
+        then(this.meterRegistry.find("kafka.listener.lag").gauges()).isEmpty();
+    }
+
+}
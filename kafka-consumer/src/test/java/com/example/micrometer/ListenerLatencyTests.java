@@ -0,0 +1,46 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+
+@AutoConfigureObservability
+@EmbeddedKafka(partitions = 1)
+@SpringBootTest(properties = { "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest" })
+class ListenerLatencyTests {
+
+    // the generated id of the only listener of the group, with the suffix of its consumer
+    static final String LISTENER_ID = "org.springframework.kafka.KafkaListenerEndpointContainer#0-0";
+
+    @Autowired
+    KafkaTemplate<Object, Object> kafkaTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_record_lag_age_poll_to_process_and_commit_meters() {
+        this.kafkaTemplate.send("mytopic", "hello");
+
+        await().atMost(Duration.ofSeconds(30))
+            .untilAsserted(() -> MeterRegistryAssert.then(this.meterRegistry)
+                .hasTimerWithNameAndTags("spring.kafka.listener", Tags.of("spring.kafka.listener.id", LISTENER_ID))
+                .hasTimerWithName("kafka.listener.record.age")
+                .hasTimerWithName("kafka.listener.poll.to.process")
+                .hasTimerWithNameAndTags("kafka.listener.commit", Tags.of("spring.kafka.listener.id", LISTENER_ID))
+                .hasMeterWithNameAndTags("kafka.listener.lag", Tags.of("spring.kafka.listener.id", LISTENER_ID, "group",
+                        "group", "topic", "mytopic", "partition", "0")));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+@AutoConfigureObservability
+@EmbeddedKafka(partitions = 1)
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+class ScalingBenchmarkTests {
+
+    @Autowired
+    @Qualifier("kafkaListenerContainerFactory")
+    ConcurrentKafkaListenerContainerFactory<Object, Object> factory;
+
+    @Autowired
+    KafkaTemplate<Object, Object> kafkaTemplate;
+
+    @Autowired
+    KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_process_all_records_with_concurrent_observed_consumers() throws Exception {
+        ScalingBenchmark benchmark = new ScalingBenchmark(this.factory, this.kafkaTemplate, this.kafkaAdmin,
+                this.observationRegistry, List.of(1, 2), 0, 200, 0);
+
+        ScalingBenchmark.Result result = benchmark.measure(2, true, 200);
+
+        then(result.processed()).isEqualTo(200);
+        then(result.recordsPerSecond()).isPositive();
+        then(result.maxLag()).isBetween(0L, 200L);
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("spring.kafka.listener")
+            .hasTimerWithName("on-message");
+        try (AdminClient adminClient = AdminClient.create(this.kafkaAdmin.getConfigurationProperties())) {
+            await().atMost(Duration.ofSeconds(30))
+                .untilAsserted(() -> then(adminClient.listTopics().names().get())
+                    .noneMatch(topic -> topic.startsWith("scaling-benchmark-")));
+        }
+    }
+
+}
@@ -7,6 +7,7 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -15,6 +16,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -28,8 +30,14 @@ public class KafkaProducerApplication implements CommandLineRunner {
     @Autowired
     KafkaProducerService kafkaProducerService;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         this.kafkaProducerService.call();
     }
 
@@ -0,0 +1,257 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-throughput mode of the producer: sends {@code benchmark.records} records with the
+ * given {@code linger.ms}, {@code batch.size}, compression and idempotence settings and
+ * reports records/sec, the send-to-ack latency and the end-to-end latency, i.e. from the
+ * record timestamp until a consumer running in this JVM got it. All sends share a single
+ * parent observation, only {@code benchmark.record-observation.probability} of the
+ * records get their own child observation (span and trace headers) from the
+ * {@link KafkaTemplate}. Start it with {@code benchmark=throughput}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    private final KafkaProperties kafkaProperties;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final ApplicationContext applicationContext;
+
+    private final String topic;
+
+    private final int partitions;
+
+    private final int records;
+
+    private final String value;
+
+    private final int lingerMs;
+
+    private final int batchSize;
+
+    private final String compression;
+
+    private final boolean idempotence;
+
+    private final double recordObservationProbability;
+
+    ThroughputBenchmark(KafkaProperties kafkaProperties, KafkaAdmin kafkaAdmin, ObservationRegistry observationRegistry,
+            ApplicationContext applicationContext, @Value("${benchmark.topic:benchmark}") String topic,
+            @Value("${benchmark.partitions:1}") int partitions, @Value("${benchmark.records:100000}") int records,
+            @Value("${benchmark.record-size:512}") int recordSize, @Value("${benchmark.linger-ms:5}") int lingerMs,
+            @Value("${benchmark.batch-size:65536}") int batchSize,
+            @Value("${benchmark.compression:lz4}") String compression,
+            @Value("${benchmark.idempotence:true}") boolean idempotence,
+            @Value("${benchmark.record-observation.probability:0.01}") double recordObservationProbability) {
+        this.kafkaProperties = kafkaProperties;
+        this.kafkaAdmin = kafkaAdmin;
+        this.observationRegistry = observationRegistry;
+        this.applicationContext = applicationContext;
+        this.topic = topic;
+        this.partitions = partitions;
+        this.records = records;
+        this.value = "x".repeat(recordSize);
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compression = compression;
+        this.idempotence = idempotence;
+        this.recordObservationProbability = recordObservationProbability;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info(
+                "Throughput benchmark, {} records of {} bytes to [{}], linger.ms={}, batch.size={}, compression={},"
+                        + " idempotence={}, record observation probability {}",
+                this.records, this.value.length(), this.topic, this.lingerMs, this.batchSize, this.compression,
+                this.idempotence, this.recordObservationProbability);
+        Result result = measure();
+        log.info(String.format("%12s %8s %12s %12s %12s %12s %10s", "records/s", "errors", "ack p50 ms", "ack p99 ms",
+                "e2e p50 ms", "e2e p99 ms", "received"));
+        log.info(String.format("%12.1f %8d %12.2f %12.2f %12.2f %12.2f %10d", result.recordsPerSecond(),
+                result.errors(), result.ackP50(), result.ackP99(), result.endToEndP50(), result.endToEndP99(),
+                result.received()));
+    }
+
+    Result measure() throws Exception {
+        this.kafkaAdmin
+            .createOrModifyTopics(TopicBuilder.name(this.topic).partitions(this.partitions).replicas(1).build());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer ack = Timer.builder("benchmark.ack").publishPercentiles(0.5, 0.99).register(registry);
+        Timer endToEnd = Timer.builder("benchmark.end-to-end").publishPercentiles(0.5, 0.99).register(registry);
+
+        DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(
+                producerProperties());
+        // the consumer is not thread-safe, it is only used and closed by the polling
+        // thread, this one just wakes it up when it has to stop early
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(consumerProperties(), new StringDeserializer(),
+                new StringDeserializer());
+        CompletableFuture<Void> assigned = new CompletableFuture<>();
+        AtomicBoolean stopped = new AtomicBoolean();
+        CompletableFuture<Long> received = CompletableFuture
+            .supplyAsync(() -> consume(consumer, endToEnd, assigned, stopped));
+        try {
+            // both templates share the producer, and with it the batches
+            KafkaTemplate<String, String> plain = new KafkaTemplate<>(producerFactory);
+            KafkaTemplate<String, String> observed = new KafkaTemplate<>(producerFactory);
+            observed.setObservationEnabled(true);
+            observed.setApplicationContext(this.applicationContext);
+            observed.afterSingletonsInstantiated();
+            assigned.get(1, TimeUnit.MINUTES);
+
+            LongAdder errors = new LongAdder();
+            long start = System.nanoTime();
+            Observation.createNotStarted("kafka-producer.batch", this.observationRegistry)
+                .lowCardinalityKeyValue("compression", this.compression)
+                .lowCardinalityKeyValue("idempotence", String.valueOf(this.idempotence))
+                .observeChecked(() -> send(plain, observed, ack, errors));
+            long wallNanos = System.nanoTime() - start;
+
+            return new Result(this.records / (wallNanos / 1e9), errors.sum(), percentile(ack, 0.5),
+                    percentile(ack, 0.99), percentile(endToEnd, 0.5), percentile(endToEnd, 0.99),
+                    received.get(1, TimeUnit.MINUTES));
+        }
+        finally {
+            stopped.set(true);
+            consumer.wakeup();
+            producerFactory.destroy();
+        }
+    }
+
+    private void send(KafkaTemplate<String, String> plain, KafkaTemplate<String, String> observed, Timer ack,
+            LongAdder errors) throws InterruptedException {
+        CountDownLatch acked = new CountDownLatch(this.records);
+        for (int i = 0; i < this.records; i++) {
+            KafkaTemplate<String, String> template = sampled() ? observed : plain;
+            long sent = System.nanoTime();
+            template.send(this.topic, this.value).whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    errors.increment();
+                }
+                else {
+                    ack.record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                }
+                acked.countDown();
+            });
+        }
+        // the parent observation covers the sends until the last one got acknowledged
+        acked.await();
+    }
+
+    /**
+     * Starts at the end of the topic, which {@code assigned} signals, and polls until all
+     * records arrived, a minute passed or {@code stopped} is set.
+     */
+    private long consume(KafkaConsumer<String, String> consumer, Timer endToEnd, CompletableFuture<Void> assigned,
+            AtomicBoolean stopped) {
+        long received = 0;
+        try (consumer) {
+            List<TopicPartition> topicPartitions = consumer.partitionsFor(this.topic)
+                .stream()
+                .map(info -> new TopicPartition(info.topic(), info.partition()))
+                .toList();
+            consumer.assign(topicPartitions);
+            consumer.seekToEnd(topicPartitions);
+            topicPartitions.forEach(consumer::position);
+            assigned.complete(null);
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+            while (!stopped.get() && received < this.records && System.nanoTime() < deadline) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+                    endToEnd.record(Math.max(0, System.currentTimeMillis() - record.timestamp()),
+                            TimeUnit.MILLISECONDS);
+                    received++;
+                }
+            }
+        }
+        catch (WakeupException ex) {
+            // stopped while polling
+        }
+        catch (RuntimeException ex) {
+            assigned.completeExceptionally(ex);
+            throw ex;
+        }
+        return received;
+    }
+
+    private boolean sampled() {
+        return this.recordObservationProbability >= 1.0 || (this.recordObservationProbability > 0.0
+                && ThreadLocalRandom.current().nextDouble() < this.recordObservationProbability);
+    }
+
+    private Map<String, Object> producerProperties() {
+        Map<String, Object> properties = this.kafkaProperties.buildProducerProperties();
+        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, this.lingerMs);
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, this.batchSize);
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, this.compression);
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, this.idempotence);
+        // idempotence requires acks from all in-sync replicas
+        properties.put(ProducerConfig.ACKS_CONFIG, this.idempotence ? "all" : "1");
+        return properties;
+    }
+
+    private Map<String, Object> consumerProperties() {
+        Map<String, Object> properties = this.kafkaProperties.buildConsumerProperties();
+        // partitions are assigned manually, no group and no offset commits
+        properties.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return properties;
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    record Result(double recordsPerSecond, long errors, double ackP50, double ackP99, double endToEndP50,
+            double endToEndP99, long received) {
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@EmbeddedKafka(partitions = 1, topics = "benchmark")
+@SpringBootTest(properties = "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}")
+class ThroughputBenchmarkTests {
+
+    @Autowired
+    KafkaProperties kafkaProperties;
+
+    @Autowired
+    KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_deliver_all_records_with_sampled_record_observations() throws Exception {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(this.kafkaProperties, this.kafkaAdmin,
+                this.observationRegistry, this.applicationContext, "benchmark", 1, 500, 512, 5, 65536, "lz4", true,
+                1.0);
+
+        ThroughputBenchmark.Result result = benchmark.measure();
+
+        then(result.errors()).isZero();
+        then(result.received()).isEqualTo(500);
+        then(result.recordsPerSecond()).isPositive();
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("kafka-producer.batch")
+            .hasTimerWithName("spring.kafka.template");
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.example.micrometer;
+
+import com.rabbitmq.client.Channel;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.support.micrometer.RabbitMessageReceiverContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Batch counterpart of {@link MyRabbitListener}. The container hands over up to
+ * {@code batch-listener.batch-size} messages at once and the whole batch is acknowledged
+ * with a single {@code basic.ack} for its last delivery tag. When a message fails, the
+ * messages before it are acknowledged, the failed one is rejected without requeueing, so
+ * that it is dead-lettered when the queue has a dead letter exchange and dropped
+ * otherwise, and only the messages after it are requeued. Each message is still processed
+ * within an observation that continues the trace propagated in its headers, unless
+ * {@code batch-listener.observe-messages=false}. The listener is only started with
+ * {@code batch-listener.enabled=true}.
+ */
+class BatchRabbitListener {
+
+    static final String LISTENER_ID = "batch-listener";
+
+    private static final Logger log = LoggerFactory.getLogger(BatchRabbitListener.class);
+
+    private final Tracer tracer;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final boolean observeMessages;
+
+    private final long logEvery;
+
+    private final LongAdder processed = new LongAdder();
+
+    BatchRabbitListener(Tracer tracer, ObservationRegistry observationRegistry, boolean observeMessages,
+            long logEvery) {
+        this.tracer = tracer;
+        this.observationRegistry = observationRegistry;
+        this.observeMessages = observeMessages;
+        this.logEvery = logEvery;
+    }
+
+    @RabbitListener(id = LISTENER_ID, queues = "${batch-listener.queue:test.queue}",
+            containerFactory = "batchRabbitListenerContainerFactory", autoStartup = "${batch-listener.enabled:false}")
+    void onBatch(List<Message> messages, Channel channel) throws IOException {
+        if (messages.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            try {
+                if (this.observeMessages) {
+                    Observation
+                        .createNotStarted("on-message", () -> new RabbitMessageReceiverContext(message, LISTENER_ID),
+                                this.observationRegistry)
+                        .observe(() -> process(message));
+                }
+                else {
+                    process(message);
+                }
+            }
+            catch (RuntimeException ex) {
+                settleFailedBatch(messages, i, channel);
+                throw ex;
+            }
+        }
+        channel.basicAck(deliveryTag(messages.get(messages.size() - 1)), true);
+    }
+
+    private static void settleFailedBatch(List<Message> messages, int failed, Channel channel) throws IOException {
+        if (failed > 0) {
+            channel.basicAck(deliveryTag(messages.get(failed - 1)), true);
+        }
+        // redelivering the message that failed would most likely fail again
+        channel.basicNack(deliveryTag(messages.get(failed)), false, false);
+        if (failed < messages.size() - 1) {
+            channel.basicNack(deliveryTag(messages.get(messages.size() - 1)), true, true);
+        }
+    }
+
+    private static long deliveryTag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+
+    long processed() {
+        return this.processed.sum();
+    }
+
+    private void process(Message message) {
+        this.processed.increment();
+        if (this.logEvery > 0 && this.processed.sum() % this.logEvery == 0 && this.tracer.currentSpan() != null) {
+            log.info("<TRACE:{}> Got message <{}@{}>", this.tracer.currentSpan().context().traceId(),
+                    message.getMessageProperties().getConsumerQueue(), message.getMessageProperties().getDeliveryTag());
+        }
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single message listener, observed by the container and per message like
+ * {@link MyRabbitListener}, with the {@link BatchRabbitListener}, with and without its
+ * per message observations. Before every run {@code benchmark.messages} messages with
+ * trace headers are published to {@code benchmark.queue}, the run then measures how fast
+ * the listener drains the queue. Prefetch and consumers come from
+ * {@code spring.rabbitmq.listener.simple.*} and {@code batch-listener.*} respectively.
+ * Start it with {@code benchmark=listener}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "listener")
+class ListenerBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerBenchmark.class);
+
+    private final SimpleRabbitListenerContainerFactory recordFactory;
+
+    private final SimpleRabbitListenerContainerFactory batchFactory;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final AmqpAdmin amqpAdmin;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Tracer tracer;
+
+    private final ApplicationContext applicationContext;
+
+    private final List<String> modes;
+
+    private final String queue;
+
+    private final int messages;
+
+    private final long logEvery;
+
+    ListenerBenchmark(@Qualifier("rabbitListenerContainerFactory") SimpleRabbitListenerContainerFactory recordFactory,
+            @Qualifier("batchRabbitListenerContainerFactory") SimpleRabbitListenerContainerFactory batchFactory,
+            ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin, ObservationRegistry observationRegistry,
+            Tracer tracer, ApplicationContext applicationContext,
+            @Value("${benchmark.modes:record,batch,batch-unobserved}") List<String> modes,
+            @Value("${benchmark.queue:listener-benchmark}") String queue,
+            @Value("${benchmark.messages:50000}") int messages,
+            @Value("${batch-listener.log-every:1000}") long logEvery) {
+        this.recordFactory = recordFactory;
+        this.batchFactory = batchFactory;
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+        this.observationRegistry = observationRegistry;
+        this.tracer = tracer;
+        this.applicationContext = applicationContext;
+        this.modes = modes;
+        this.queue = queue;
+        this.messages = messages;
+        this.logEvery = logEvery;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Listener benchmark, {} messages per run from [{}]", this.messages, this.queue);
+        // warm up the JIT, those numbers are not reported
+        for (String mode : this.modes) {
+            measure(mode, Math.max(1, this.messages / 10));
+        }
+        log.info(String.format("%18s %12s %14s", "listener", "messages/s", "cpu us/message"));
+        for (String mode : this.modes) {
+            Result result = measure(mode, this.messages);
+            log.info(String.format("%18s %12.1f %14.2f", mode, result.messagesPerSecond(),
+                    result.cpuMicrosPerMessage()));
+        }
+    }
+
+    Result measure(String mode, int count) throws InterruptedException {
+        publish(count);
+        CountDownLatch latch = new CountDownLatch(count);
+        SimpleMessageListenerContainer container = switch (mode) {
+            case "record" -> container(this.recordFactory, (MessageListener) message -> {
+                Observation.createNotStarted("on-message", this.observationRegistry).observe(() -> {
+                    if (this.logEvery > 0 && message.getMessageProperties().getDeliveryTag() % this.logEvery == 0) {
+                        log.info("<TRACE:{}> Got message <{}@{}>", this.tracer.currentSpan().context().traceId(),
+                                message.getMessageProperties().getConsumerQueue(),
+                                message.getMessageProperties().getDeliveryTag());
+                    }
+                });
+                latch.countDown();
+            });
+            case "batch", "batch-unobserved" -> {
+                BatchRabbitListener listener = new BatchRabbitListener(this.tracer, this.observationRegistry,
+                        mode.equals("batch"), this.logEvery);
+                yield container(this.batchFactory, (ChannelAwareBatchMessageListener) (batch, channel) -> {
+                    try {
+                        listener.onBatch(batch, channel);
+                    }
+                    catch (IOException ex) {
+                        throw new AmqpIOException(ex);
+                    }
+                    batch.forEach(message -> latch.countDown());
+                });
+            }
+            default -> throw new IllegalArgumentException("Unknown mode <" + mode + ">");
+        };
+        long cpuBefore = processCpuTime();
+        long start = System.nanoTime();
+        container.start();
+        try {
+            if (!latch.await(5, TimeUnit.MINUTES)) {
+                log.warn("Listener [{}] only got {} of {} messages", mode, count - latch.getCount(), count);
+            }
+            long wallNanos = System.nanoTime() - start;
+            long cpuNanos = processCpuTime() - cpuBefore;
+            return new Result(count / (wallNanos / 1e9), cpuNanos / 1e3 / count, count - latch.getCount());
+        }
+        finally {
+            container.stop();
+        }
+    }
+
+    private SimpleMessageListenerContainer container(SimpleRabbitListenerContainerFactory factory,
+            MessageListener listener) {
+        SimpleMessageListenerContainer container = factory.createListenerContainer();
+        container.setQueueNames(this.queue);
+        container.setMessageListener(listener);
+        container.afterPropertiesSet();
+        return container;
+    }
+
+    // sent with trace headers, published before the run so that only consuming is timed
+    private void publish(int count) throws InterruptedException {
+        this.amqpAdmin.declareQueue(QueueBuilder.durable(this.queue).build());
+        this.amqpAdmin.purgeQueue(this.queue, false);
+        RabbitTemplate template = new RabbitTemplate(this.connectionFactory);
+        template.setObservationEnabled(true);
+        template.setApplicationContext(this.applicationContext);
+        byte[] body = "message".getBytes(StandardCharsets.UTF_8);
+        Observation.createNotStarted("listener-benchmark.publish", this.observationRegistry).observe(() -> {
+            for (int i = 0; i < count; i++) {
+                template.send("", this.queue, MessageBuilder.withBody(body).build());
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (queued() < count && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private long queued() {
+        Properties properties = this.amqpAdmin.getQueueProperties(this.queue);
+        return properties != null ? ((Number) properties.get(RabbitAdmin.QUEUE_MESSAGE_COUNT)).longValue() : 0;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    record Result(double messagesPerSecond, double cpuMicrosPerMessage, long received) {
+    }
+
+}
@@ -7,9 +7,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.*;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Service;
@@ -45,6 +49,33 @@ public class RabbitConsumerApplication implements CommandLineRunner {
         return new Binding(QUEUE_NAME, Binding.DestinationType.QUEUE, EXCHANGE_NAME, "", null);
     }
 
+    // prefetch and consumers of the single message listener are set through
+    // spring.rabbitmq.listener.simple.*
+    @Bean
+    SimpleRabbitListenerContainerFactory batchRabbitListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            @Value("${batch-listener.prefetch:250}") int prefetch,
+            @Value("${batch-listener.concurrency:1}") int concurrency,
+            @Value("${batch-listener.batch-size:50}") int batchSize) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setPrefetchCount(Math.max(prefetch, batchSize));
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchListener(true);
+        factory.setBatchSize(batchSize);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
+    @Bean
+    BatchRabbitListener batchRabbitListener(Tracer tracer, ObservationRegistry observationRegistry,
+            @Value("${batch-listener.observe-messages:true}") boolean observeMessages,
+            @Value("${batch-listener.log-every:1000}") long logEvery) {
+        return new BatchRabbitListener(tracer, observationRegistry, observeMessages, logEvery);
+    }
+
 }
 
 @Service
@@ -0,0 +1,81 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@SpringBootTest(properties = "batch-listener.batch-size=20")
+@Testcontainers(disabledWithoutDocker = true)
+class ListenerBenchmarkTests {
+
+    @Container
+    static RabbitMQContainer broker = new RabbitMQContainer("rabbitmq:3.7.25-management-alpine");
+
+    @DynamicPropertySource
+    static void setup(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", broker::getHost);
+        registry.add("spring.rabbitmq.port", broker::getAmqpPort);
+    }
+
+    @Autowired
+    @Qualifier("rabbitListenerContainerFactory")
+    SimpleRabbitListenerContainerFactory recordFactory;
+
+    @Autowired
+    @Qualifier("batchRabbitListenerContainerFactory")
+    SimpleRabbitListenerContainerFactory batchFactory;
+
+    @Autowired
+    ConnectionFactory connectionFactory;
+
+    @Autowired
+    AmqpAdmin amqpAdmin;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    Tracer tracer;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "record", "batch", "batch-unobserved" })
+    void should_drain_the_queue(String mode) throws Exception {
+        ListenerBenchmark benchmark = new ListenerBenchmark(this.recordFactory, this.batchFactory,
+                this.connectionFactory, this.amqpAdmin, this.observationRegistry, this.tracer, this.applicationContext,
+                List.of(mode), "listener-benchmark", 200, 1000);
+
+        ListenerBenchmark.Result result = benchmark.measure(mode, 200);
+
+        then(result.received()).isEqualTo(200);
+        then(result.messagesPerSecond()).isPositive();
+        MeterRegistryAssert.then(this.meterRegistry).hasTimerWithName("on-message");
+    }
+
+}
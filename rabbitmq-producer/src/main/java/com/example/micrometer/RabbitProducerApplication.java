@@ -13,12 +13,14 @@ import org.springframework.amqp.core.MessageListener;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 @SpringBootApplication
 public class RabbitProducerApplication implements CommandLineRunner {
@@ -34,8 +36,14 @@ public class RabbitProducerApplication implements CommandLineRunner {
     @Autowired
     MyRabbitProducer myRabbitProducer;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         myRabbitProducer.call();
     }
 
@@ -0,0 +1,319 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.batch.MessageBatch;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-throughput mode of the producer with publisher confirms. Sends
+ * {@code benchmark.messages} messages to a dedicated queue, keeping at most
+ * {@code benchmark.window} of them unconfirmed, and reports messages/sec and the
+ * publish-to-confirm latency of both acks and nacks, which are counted apart. Every
+ * {@code benchmark.batch-size} messages are sent within one {@code rabbit-producer.batch}
+ * observation.
+ * <ul>
+ * <li>{@code confirms} publishes every message with its own correlated confirm. Only
+ * {@code benchmark.message-observation.probability} of the messages get a child span (and
+ * trace headers) from the {@link RabbitTemplate}.</li>
+ * <li>{@code batching} publishes a batch as a single AMQP message through the
+ * {@link BatchingRabbitTemplate}. The batch is confirmed and observed as a whole, because
+ * it is a single message with the headers of its first message.</li>
+ * </ul>
+ * Start it with {@code benchmark=throughput} against the broker of the
+ * {@code docker-compose.yml}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    private final CachingConnectionFactory connectionFactory;
+
+    private final AmqpAdmin amqpAdmin;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final ApplicationContext applicationContext;
+
+    private final List<String> modes;
+
+    private final String queue;
+
+    private final int messages;
+
+    private final byte[] body;
+
+    private final int window;
+
+    private final int batchSize;
+
+    private final double messageObservationProbability;
+
+    private final int queueMaxLength;
+
+    ThroughputBenchmark(CachingConnectionFactory connectionFactory, AmqpAdmin amqpAdmin,
+            ObservationRegistry observationRegistry, ApplicationContext applicationContext,
+            @Value("${benchmark.modes:confirms,batching}") List<String> modes,
+            @Value("${benchmark.queue:benchmark.queue}") String queue,
+            @Value("${benchmark.messages:100000}") int messages,
+            @Value("${benchmark.message-size:512}") int messageSize, @Value("${benchmark.window:1000}") int window,
+            @Value("${benchmark.batch-size:100}") int batchSize,
+            @Value("${benchmark.message-observation.probability:0.01}") double messageObservationProbability,
+            @Value("${benchmark.queue-max-length:100000}") int queueMaxLength) {
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+        this.observationRegistry = observationRegistry;
+        this.applicationContext = applicationContext;
+        this.modes = modes;
+        this.queue = queue;
+        this.messages = messages;
+        this.body = "x".repeat(messageSize).getBytes(StandardCharsets.UTF_8);
+        this.window = window;
+        this.batchSize = batchSize;
+        this.messageObservationProbability = messageObservationProbability;
+        this.queueMaxLength = queueMaxLength;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info(
+                "Throughput benchmark, {} messages of {} bytes to [{}], window {}, batch size {},"
+                        + " message observation probability {}",
+                this.messages, this.body.length, this.queue, this.window, this.batchSize,
+                this.messageObservationProbability);
+        // warm up the connection and JIT, those numbers are not reported
+        this.modes.forEach(mode -> measure(mode, Math.max(this.batchSize, this.messages / 10)));
+        log.info(String.format("%10s %12s %8s %14s %14s %10s", "mode", "messages/s", "nacks", "confirm p50 ms",
+                "confirm p99 ms", "confirmed"));
+        for (String mode : this.modes) {
+            Result result = measure(mode, this.messages);
+            log.info(String.format("%10s %12.1f %8d %14.2f %14.2f %10d", mode, result.messagesPerSecond(),
+                    result.nacks(), result.confirmP50(), result.confirmP99(), result.confirmed()));
+        }
+    }
+
+    Result measure(String mode, int count) {
+        // the broker drops the oldest messages, nothing consumes them; 0 declares an
+        // unbounded queue for brokers without x-max-length
+        QueueBuilder queue = QueueBuilder.durable(this.queue);
+        this.amqpAdmin
+            .declareQueue(this.queueMaxLength > 0 ? queue.maxLength(this.queueMaxLength).build() : queue.build());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer confirm = Timer.builder("benchmark.confirm").publishPercentiles(0.5, 0.99).register(registry);
+        LongAdder nacks = new LongAdder();
+        LongAdder confirmed = new LongAdder();
+        // a new factory, so that the sample keeps its connection without confirms
+        CachingConnectionFactory confirmingFactory = new CachingConnectionFactory(
+                this.connectionFactory.getRabbitConnectionFactory());
+        confirmingFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        try {
+            long start = System.nanoTime();
+            switch (mode) {
+                case "confirms" -> sendWithConfirms(confirmingFactory, count, confirm, nacks, confirmed);
+                case "batching" -> sendBatches(confirmingFactory, count, confirm, nacks, confirmed);
+                default -> throw new IllegalArgumentException("Unknown mode <" + mode + ">");
+            }
+            long wallNanos = System.nanoTime() - start;
+            return new Result(count / (wallNanos / 1e9), nacks.sum(), percentile(confirm, 0.5),
+                    percentile(confirm, 0.99), confirmed.sum());
+        }
+        finally {
+            confirmingFactory.destroy();
+        }
+    }
+
+    private void sendWithConfirms(CachingConnectionFactory connectionFactory, int count, Timer confirm, LongAdder nacks,
+            LongAdder confirmed) {
+        // both templates share the channels of the connection factory
+        RabbitTemplate plain = new RabbitTemplate(connectionFactory);
+        RabbitTemplate observed = new RabbitTemplate(connectionFactory);
+        observed.setObservationEnabled(true);
+        observed.setApplicationContext(this.applicationContext);
+        Semaphore inFlight = new Semaphore(this.window);
+        sendInBatches(count, "confirms", () -> {
+            RabbitTemplate template = sampled() ? observed : plain;
+            acquire(inFlight, 1);
+            long sent = System.nanoTime();
+            CorrelationData correlationData = new CorrelationData();
+            correlationData.getFuture().whenComplete((result, throwable) -> {
+                confirm.record(System.nanoTime() - sent, TimeUnit.NANOSECONDS);
+                if (throwable == null && result.isAck()) {
+                    confirmed.increment();
+                }
+                else {
+                    nacks.increment();
+                }
+                inFlight.release();
+            });
+            template.send("", this.queue, message(), correlationData);
+        });
+        // all permits are back once the last message got confirmed
+        acquire(inFlight, this.window);
+    }
+
+    private void sendBatches(CachingConnectionFactory connectionFactory, int count, Timer confirm, LongAdder nacks,
+            LongAdder confirmed) {
+        int window = Math.max(this.window, this.batchSize);
+        Semaphore inFlight = new Semaphore(window);
+        ReleasedBatches batchingStrategy = new ReleasedBatches(
+                new SimpleBatchingStrategy(this.batchSize, Integer.MAX_VALUE, 1_000));
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        BatchingRabbitTemplate template = new BatchingRabbitTemplate(connectionFactory, batchingStrategy, scheduler);
+        template.setObservationEnabled(true);
+        template.setApplicationContext(this.applicationContext);
+        // a batch is published without correlation data, confirms arrive in publish order
+        template.setConfirmCallback((correlationData, ack, cause) -> {
+            Released batch = batchingStrategy.released.poll();
+            if (batch == null) {
+                return;
+            }
+            confirm.record(System.nanoTime() - batch.nanos(), TimeUnit.NANOSECONDS);
+            (ack ? confirmed : nacks).add(batch.messages());
+            inFlight.release(batch.messages());
+        });
+        try {
+            sendInBatches(count, "batching", () -> {
+                acquire(inFlight, 1);
+                template.send("", this.queue, message());
+            }, template::flush);
+            acquire(inFlight, window);
+        }
+        finally {
+            template.stop();
+            scheduler.shutdown();
+        }
+    }
+
+    private void sendInBatches(int count, String mode, Runnable send) {
+        sendInBatches(count, mode, send, () -> {
+        });
+    }
+
+    private void sendInBatches(int count, String mode, Runnable send, Runnable endOfBatch) {
+        for (int sent = 0; sent < count; sent += this.batchSize) {
+            int size = Math.min(this.batchSize, count - sent);
+            Observation.createNotStarted("rabbit-producer.batch", this.observationRegistry)
+                .lowCardinalityKeyValue("mode", mode)
+                .observe(() -> {
+                    for (int i = 0; i < size; i++) {
+                        send.run();
+                    }
+                    endOfBatch.run();
+                });
+        }
+    }
+
+    private Message message() {
+        return MessageBuilder.withBody(this.body).build();
+    }
+
+    private boolean sampled() {
+        return this.messageObservationProbability >= 1.0 || (this.messageObservationProbability > 0.0
+                && ThreadLocalRandom.current().nextDouble() < this.messageObservationProbability);
+    }
+
+    private static void acquire(Semaphore semaphore, int permits) {
+        try {
+            if (!semaphore.tryAcquire(permits, 1, TimeUnit.MINUTES)) {
+                throw new IllegalStateException("Publisher confirms did not arrive within a minute");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    record Result(double messagesPerSecond, long nacks, double confirmP50, double confirmP99, long confirmed) {
+    }
+
+    private record Released(long nanos, int messages) {
+    }
+
+    /**
+     * Remembers when each batch was released and how many messages it holds, so that the
+     * uncorrelated confirm of the batch can be matched with it.
+     */
+    private static class ReleasedBatches implements BatchingStrategy {
+
+        private final BatchingStrategy delegate;
+
+        private final Queue<Released> released = new ConcurrentLinkedQueue<>();
+
+        ReleasedBatches(BatchingStrategy delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public MessageBatch addToBatch(String exchange, String routingKey, Message message) {
+            MessageBatch batch = this.delegate.addToBatch(exchange, routingKey, message);
+            if (batch != null) {
+                release(batch);
+            }
+            return batch;
+        }
+
+        @Override
+        public Date nextRelease() {
+            return this.delegate.nextRelease();
+        }
+
+        @Override
+        public Collection<MessageBatch> releaseBatches() {
+            Collection<MessageBatch> batches = this.delegate.releaseBatches();
+            batches.forEach(this::release);
+            return batches;
+        }
+
+        private void release(MessageBatch batch) {
+            Integer size = batch.getMessage().getMessageProperties().getHeader(AmqpHeaders.BATCH_SIZE);
+            this.released.add(new Released(System.nanoTime(), size));
+        }
+
+    }
+
+}
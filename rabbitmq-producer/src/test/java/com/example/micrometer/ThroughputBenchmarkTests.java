@@ -0,0 +1,69 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.RabbitMQContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ThroughputBenchmarkTests {
+
+    @Container
+    static RabbitMQContainer broker = new RabbitMQContainer("rabbitmq:3.7.25-management-alpine");
+
+    @DynamicPropertySource
+    static void setup(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", broker::getHost);
+        registry.add("spring.rabbitmq.port", broker::getAmqpPort);
+    }
+
+    @Autowired
+    CachingConnectionFactory connectionFactory;
+
+    @Autowired
+    AmqpAdmin amqpAdmin;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    ApplicationContext applicationContext;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "confirms", "batching" })
+    void should_confirm_every_message_within_observed_batches(String mode) {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(this.connectionFactory, this.amqpAdmin,
+                this.observationRegistry, this.applicationContext, List.of(mode), "benchmark.queue", 500, 512, 1000,
+                100, 1.0, 100000);
+
+        ThroughputBenchmark.Result result = benchmark.measure(mode, 500);
+
+        then(result.confirmed()).isEqualTo(500);
+        then(result.nacks()).isZero();
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("rabbit-producer.batch")
+            .hasTimerWithName("spring.rabbit.template");
+    }
+
+}
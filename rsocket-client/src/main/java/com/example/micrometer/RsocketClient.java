@@ -17,6 +17,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.rsocket.RSocketRequester;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
@@ -32,8 +33,14 @@ public class RsocketClient implements CommandLineRunner {
     @Autowired
     RsocketService rsocketService;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         this.rsocketService.call().block(Duration.ofSeconds(5));
         // To ensure that the spans got successfully reported
         Thread.sleep(500);
@@ -48,7 +55,14 @@ class Config {
     @Bean
     RSocketRequester myRSocketRequester(@Value("${url:ws://localhost:7112/rsocket}") String url,
             RSocketRequester.Builder builder) {
-        return builder.websocket(URI.create(url));
+        return connect(builder, URI.create(url));
+    }
+
+    /**
+     * Connects over TCP for {@code tcp://host:port} URLs and over WebSocket otherwise.
+     */
+    static RSocketRequester connect(RSocketRequester.Builder builder, URI url) {
+        return "tcp".equals(url.getScheme()) ? builder.tcp(url.getHost(), url.getPort()) : builder.websocket(url);
     }
 
 }
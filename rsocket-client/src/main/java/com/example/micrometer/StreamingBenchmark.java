@@ -0,0 +1,220 @@
+package com.example.micrometer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures the streaming interactions of the server at {@code url}, started with
+ * {@code rsocket.tcp.enabled=true} to compare WebSocket with
+ * {@code tcp://localhost:7113}.
+ * <p>
+ * Every {@link Interaction} moves {@code benchmark.messages} messages of
+ * {@code benchmark.message-size} bytes, once through a requester without and once through
+ * the requester with the observation proxies, for {@code benchmark.rounds} rounds. The
+ * messages/sec and the time per message of the best round of each, and the difference
+ * between the two are logged. A request-stream or request-channel is observed once, not
+ * per frame, so the overhead shows in the interaction that sends one request per message.
+ * Starting the server with {@code rsocket.observation.enabled=false} takes its responder
+ * observations out of the numbers as well.
+ * <p>
+ * Afterwards {@code benchmark.slow.messages} messages are streamed to a consumer that
+ * takes {@code benchmark.slow.delay} per message, once for every
+ * {@code benchmark.slow.prefetch} limit on the messages it asks for at a time. The server
+ * reports with every message how many it had been asked for, so the logged maximum of
+ * that minus the consumed messages shows whether the demand of the consumer reached the
+ * server, and how often the consumer asked for more. Start it with
+ * {@code benchmark=streaming}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "streaming")
+class StreamingBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingBenchmark.class);
+
+    private final RSocketRequester observedRequester;
+
+    private final RSocketRequester plainRequester;
+
+    private final int messages;
+
+    private final int messageSize;
+
+    private final int concurrency;
+
+    private final int rounds;
+
+    private final int slowMessages;
+
+    private final long slowDelayNanos;
+
+    private final List<Integer> slowPrefetch;
+
+    StreamingBenchmark(RSocketRequester observedRequester, RSocketStrategies strategies,
+            @Value("${url:ws://localhost:7112/rsocket}") String url,
+            @Value("${benchmark.messages:100000}") int messages, @Value("${benchmark.message-size:64}") int messageSize,
+            @Value("${benchmark.concurrency:64}") int concurrency, @Value("${benchmark.rounds:4}") int rounds,
+            @Value("${benchmark.slow.messages:1000}") int slowMessages,
+            @Value("${benchmark.slow.delay:1ms}") Duration slowDelay,
+            @Value("${benchmark.slow.prefetch:32,256}") List<Integer> slowPrefetch) {
+        this.observedRequester = observedRequester;
+        this.plainRequester = Config.connect(RSocketRequester.builder().rsocketStrategies(strategies), URI.create(url));
+        this.messages = messages;
+        this.messageSize = messageSize;
+        this.concurrency = concurrency;
+        this.rounds = rounds;
+        this.slowMessages = slowMessages;
+        this.slowDelayNanos = slowDelay.toNanos();
+        this.slowPrefetch = slowPrefetch;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            log.info("Streaming benchmark, {} messages of {} bytes, concurrency {}", this.messages, this.messageSize,
+                    this.concurrency);
+            // warm up connections and JIT, those numbers are not reported
+            for (Interaction interaction : Interaction.values()) {
+                measure(interaction, this.plainRequester, this.messages);
+                measure(interaction, this.observedRequester, this.messages);
+            }
+            log.info(String.format("%-10s %9s %12s %10s %14s", "interaction", "observed", "msgs/s", "us/msg",
+                    "overhead us"));
+            for (Interaction interaction : Interaction.values()) {
+                Result plain = null;
+                Result observed = null;
+                // whichever requester goes second profits from the first, so take turns
+                for (int round = 0; round < this.rounds; round++) {
+                    if (round % 2 == 0) {
+                        plain = faster(plain, measure(interaction, this.plainRequester, this.messages));
+                        observed = faster(observed, measure(interaction, this.observedRequester, this.messages));
+                    }
+                    else {
+                        observed = faster(observed, measure(interaction, this.observedRequester, this.messages));
+                        plain = faster(plain, measure(interaction, this.plainRequester, this.messages));
+                    }
+                }
+                log.info(String.format("%-10s %9s %12.1f %10.3f %14s", interaction.label, "no",
+                        plain.messagesPerSecond(), plain.microsPerMessage(), ""));
+                log.info(String.format("%-10s %9s %12.1f %10.3f %14.3f", interaction.label, "yes",
+                        observed.messagesPerSecond(), observed.microsPerMessage(),
+                        observed.microsPerMessage() - plain.microsPerMessage()));
+            }
+            log.info("Slow consumer, {} messages taking {} us each", this.slowMessages, this.slowDelayNanos / 1000);
+            log.info(String.format("%10s %10s %12s %14s", "prefetch", "msgs/s", "max ahead", "demand signals"));
+            for (int prefetch : this.slowPrefetch) {
+                SlowConsumerResult result = consumeSlowly(prefetch);
+                log.info(String.format("%10d %10.1f %12d %14d", prefetch, result.messagesPerSecond(),
+                        result.maxDemandAhead(), result.demandSignals()));
+            }
+        }
+        finally {
+            this.plainRequester.dispose();
+        }
+    }
+
+    Result measure(Interaction interaction, RSocketRequester requester, int count) {
+        String payload = "x".repeat(this.messageSize);
+        long start = System.nanoTime();
+        Long received = switch (interaction) {
+            case STREAM -> requester.route("stream")
+                .data(new StreamRequest(count, this.messageSize))
+                .retrieveFlux(StreamMessage.class)
+                .count()
+                .block();
+            case CHANNEL -> requester.route("channel")
+                .data(Flux.range(0, count).map(i -> payload), String.class)
+                .retrieveFlux(String.class)
+                .count()
+                .block();
+            case REQUESTS -> Flux.range(0, count)
+                .flatMap(i -> requester.route("stream")
+                    .data(new StreamRequest(1, this.messageSize))
+                    .retrieveFlux(StreamMessage.class), this.concurrency)
+                .count()
+                .block();
+        };
+        long wallNanos = System.nanoTime() - start;
+        if (received == null || received != count) {
+            log.warn("Received {} of {} messages through {}", received, count, interaction.label);
+        }
+        return new Result(count / (wallNanos / 1e9), wallNanos / 1e3 / count);
+    }
+
+    private static Result faster(Result best, Result result) {
+        return best == null || result.microsPerMessage() < best.microsPerMessage() ? result : best;
+    }
+
+    SlowConsumerResult consumeSlowly(int prefetch) {
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong maxDemandAhead = new AtomicLong();
+        LongAdder demandSignals = new LongAdder();
+        long start = System.nanoTime();
+        this.observedRequester.route("stream")
+            .data(new StreamRequest(this.slowMessages, this.messageSize))
+            .retrieveFlux(StreamMessage.class)
+            .doOnRequest(n -> demandSignals.increment())
+            .publishOn(Schedulers.boundedElastic(), prefetch)
+            .doOnNext(message -> {
+                LockSupport.parkNanos(this.slowDelayNanos);
+                long ahead = message.requested() - consumed.incrementAndGet();
+                maxDemandAhead.accumulateAndGet(ahead, Math::max);
+            })
+            .blockLast();
+        long wallNanos = System.nanoTime() - start;
+        return new SlowConsumerResult(consumed.get() / (wallNanos / 1e9), maxDemandAhead.get(), demandSignals.sum());
+    }
+
+    enum Interaction {
+
+        /**
+         * One request-stream of all messages.
+         */
+        STREAM("stream"),
+
+        /**
+         * One request-channel that echoes all messages.
+         */
+        CHANNEL("channel"),
+
+        /**
+         * A request-stream of a single message per message, so every message is a request
+         * of its own and observed as such.
+         */
+        REQUESTS("requests");
+
+        private final String label;
+
+        Interaction(String label) {
+            this.label = label;
+        }
+
+    }
+
+    record StreamRequest(long count, int size) {
+    }
+
+    record StreamMessage(long sequence, long requested, String payload) {
+    }
+
+    record Result(double messagesPerSecond, double microsPerMessage) {
+    }
+
+    record SlowConsumerResult(double messagesPerSecond, long maxDemandAhead, long demandSignals) {
+    }
+
+}
@@ -7,6 +7,7 @@ import io.rsocket.core.RSocketConnector;
 import io.rsocket.core.RSocketServer;
 import io.rsocket.micrometer.observation.*;
 import io.rsocket.plugins.RSocketInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -42,7 +43,9 @@ public class ManualConfiguration {
         return new ObservationRSocketConnectorConfigurer(observationRegistry);
     }
 
+    // Switched off with rsocket.observation.enabled=false to measure what it costs
     @Bean
+    @ConditionalOnProperty(name = "rsocket.observation.enabled", matchIfMissing = true)
     ObservationRSocketServerCustomizer observationRSocketServerCustomizer(ObservationRegistry observationRegistry) {
         return new ObservationRSocketServerCustomizer(observationRegistry);
     }
@@ -9,7 +9,11 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 @SpringBootApplication
 public class RsocketServerApplication {
@@ -43,4 +47,34 @@ class RSocketController {
         });
     }
 
+    /**
+     * Streams the requested number of messages, as fast as the requester asks for them.
+     * Every message carries how many messages the requester had asked for when it was
+     * sent, which shows the requester how far its demand runs ahead of what it consumed.
+     */
+    @MessageMapping("stream")
+    public Flux<StreamMessage> stream(StreamRequest request) {
+        String payload = "x".repeat(request.size());
+        AtomicLong requested = new AtomicLong();
+        return Flux.<StreamMessage, Long>generate(() -> 0L, (sequence, sink) -> {
+            sink.next(new StreamMessage(sequence, requested.get(), payload));
+            return sequence + 1;
+        }).take(request.count(), true).doOnRequest(n -> requested.updateAndGet(r -> Operators.addCap(r, n)));
+    }
+
+    /**
+     * Echoes every message, so the demand of the requester for the replies is what
+     * decides how fast its own messages are consumed.
+     */
+    @MessageMapping("channel")
+    public Flux<String> channel(Flux<String> messages) {
+        return messages;
+    }
+
+}
+
+record StreamRequest(long count, int size) {
+}
+
+record StreamMessage(long sequence, long requested, String payload) {
 }
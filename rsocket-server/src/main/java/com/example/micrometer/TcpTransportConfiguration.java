@@ -0,0 +1,41 @@
+package com.example.micrometer;
+
+import io.rsocket.frame.decoder.PayloadDecoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.rsocket.context.RSocketServerBootstrap;
+import org.springframework.boot.rsocket.netty.NettyRSocketServerFactory;
+import org.springframework.boot.rsocket.server.RSocketServer;
+import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+
+/**
+ * Serves the same routes over plain TCP on {@code rsocket.tcp.port}, next to the
+ * WebSocket endpoint that Boot maps on the web server. Boot only starts one RSocket
+ * server, so this one is started here, with the same customizers, and thus the same
+ * observations, as the WebSocket one. Enable it with {@code rsocket.tcp.enabled=true}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "rsocket.tcp.enabled", havingValue = "true")
+class TcpTransportConfiguration {
+
+    @Bean
+    RSocketServerBootstrap tcpRSocketServerBootstrap(RSocketMessageHandler messageHandler,
+            ObjectProvider<RSocketServerCustomizer> customizers, @Value("${rsocket.tcp.port:7113}") int port) {
+        NettyRSocketServerFactory factory = new NettyRSocketServerFactory();
+        factory.setTransport(RSocketServer.Transport.TCP);
+        factory.setPort(port);
+        factory.setRSocketServerCustomizers(customizers.orderedStream().toList());
+        if (messageHandler.getRSocketStrategies().dataBufferFactory() instanceof NettyDataBufferFactory) {
+            // frames stay in the pooled buffers they were read into, like Boot does for
+            // TCP
+            factory.addRSocketServerCustomizers(server -> server.payloadDecoder(PayloadDecoder.ZERO_COPY));
+        }
+        return new RSocketServerBootstrap(factory, messageHandler.responder());
+    }
+
+}
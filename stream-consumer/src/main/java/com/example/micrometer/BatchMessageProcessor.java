@@ -0,0 +1,169 @@
+package com.example.micrometer;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Consumes the batches delivered by a binding in batch mode. With the binder versions
+ * used here such a batch arrives as one message with the list of payloads and the headers
+ * of every message in {@code amqp_batchedHeaders}, so it is split back into separate
+ * messages first. The messages of a batch are processed in parallel by a pool of
+ * {@code workers} threads, each one within its own {@code stream-consumer.message}
+ * observation that continues the trace propagated in the headers of that message, so the
+ * spans of a batch do not end up in one trace. The batch is only acknowledged once all of
+ * its messages were processed; when one of them fails the exception is rethrown and the
+ * binder redelivers or rejects the whole batch.
+ */
+class BatchMessageProcessor implements Consumer<Message<List<String>>>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchMessageProcessor.class);
+
+    private final Tracer tracer;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final ThreadPoolExecutor workers;
+
+    private final long logEvery;
+
+    private final int workIterations;
+
+    private final AtomicLong processed = new AtomicLong();
+
+    // keeps the simulated work from being optimized away
+    private volatile int sink;
+
+    BatchMessageProcessor(Tracer tracer, ObservationRegistry observationRegistry, int workers, long logEvery,
+            int workIterations) {
+        this.tracer = tracer;
+        this.observationRegistry = observationRegistry;
+        this.workers = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                new WorkerThreadFactory());
+        this.logEvery = logEvery;
+        this.workIterations = workIterations;
+    }
+
+    @Override
+    public void accept(Message<List<String>> batch) {
+        process(split(batch));
+    }
+
+    void process(List<Message<String>> batch) {
+        Observation.createNotStarted("stream-consumer.batch", this.observationRegistry)
+            .highCardinalityKeyValue("batch.size", String.valueOf(batch.size()))
+            .observe(() -> {
+                CompletableFuture<?>[] futures = batch.stream()
+                    .map(message -> CompletableFuture.runAsync(() -> process(message), this.workers))
+                    .toArray(CompletableFuture[]::new);
+                try {
+                    CompletableFuture.allOf(futures).join();
+                }
+                catch (CompletionException ex) {
+                    if (ex.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw ex;
+                }
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Message<String>> split(Message<List<String>> batch) {
+        List<String> payloads = batch.getPayload();
+        List<Map<String, Object>> headers = batch.getHeaders()
+            .get(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, List.class);
+        List<Message<String>> messages = new ArrayList<>(payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            MessageBuilder<String> message = MessageBuilder.withPayload(payloads.get(i));
+            if (headers != null && i < headers.size()) {
+                message.copyHeaders(headers.get(i));
+            }
+            messages.add(message.build());
+        }
+        return messages;
+    }
+
+    /**
+     * Resizes the worker pool, the benchmark uses it to compare pool sizes.
+     */
+    void setWorkers(int workers) {
+        if (workers > this.workers.getMaximumPoolSize()) {
+            this.workers.setMaximumPoolSize(workers);
+            this.workers.setCorePoolSize(workers);
+        }
+        else {
+            this.workers.setCorePoolSize(workers);
+            this.workers.setMaximumPoolSize(workers);
+        }
+    }
+
+    long processed() {
+        return this.processed.get();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        this.workers.shutdown();
+        this.workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void process(Message<String> message) {
+        ReceiverContext<MessageHeaders> context = new ReceiverContext<>((headers, key) -> {
+            Object value = headers.get(key);
+            return value != null ? value.toString() : null;
+        });
+        context.setCarrier(message.getHeaders());
+        Observation.createNotStarted("stream-consumer.message", () -> context, this.observationRegistry).observe(() -> {
+            work(message.getPayload());
+            long processed = this.processed.incrementAndGet();
+            if (this.logEvery > 0 && processed % this.logEvery == 0) {
+                log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer",
+                        this.tracer.currentSpan().context().traceId());
+            }
+        });
+    }
+
+    private void work(String payload) {
+        int hash = this.sink;
+        for (int i = 0; i < this.workIterations; i++) {
+            hash = 31 * hash + payload.hashCode() + i;
+        }
+        this.sink = hash;
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "batch-worker-" + this.count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -2,10 +2,12 @@ package com.example.micrometer;
 
 import java.util.function.Consumer;
 
+import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -32,4 +34,13 @@ public class StreamConsumerApplication implements CommandLineRunner {
                 tracer.currentSpan().context().traceId());
     }
 
+    // bound instead of channel with the "batch" profile, see application.yaml
+    @Bean
+    BatchMessageProcessor batchChannel(Tracer tracer, ObservationRegistry observationRegistry,
+            @Value("${batch-channel.workers:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int workers,
+            @Value("${batch-channel.log-every:1}") long logEvery,
+            @Value("${batch-channel.work-iterations:0}") int workIterations) {
+        return new BatchMessageProcessor(tracer, observationRegistry, workers, logEvery, workIterations);
+    }
+
 }
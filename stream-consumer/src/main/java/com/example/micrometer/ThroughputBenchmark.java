@@ -0,0 +1,156 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes {@code benchmark.messages} messages in batches of {@code benchmark.batch-size}
+ * through the {@code batchChannel} binding, once for every pool size in
+ * {@code benchmark.workers}, and logs messages/sec, the p50 and p99 time it took to
+ * process a batch and the CPU time per message. The batches look like the ones the binder
+ * hands over in batch mode and every message carries its own trace context. The numbers
+ * rely on sending through the binding being synchronous, so that a batch is done once the
+ * send returns, which only holds for the test binder. Start it with
+ * {@code benchmark=throughput} and the {@code batch} profile, together with
+ * {@code spring.cloud.stream.default-binder=integration} and the test binder on the
+ * classpath, it refuses to start with any other binder. {@code batch-channel.log-every}
+ * and {@code batch-channel.work-iterations} control how much logging and work is done per
+ * message.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    // the name the test binder registers itself with
+    private static final String TEST_BINDER = "integration";
+
+    private final StreamBridge streamBridge;
+
+    private final BatchMessageProcessor processor;
+
+    private final Tracer tracer;
+
+    private final Propagator propagator;
+
+    private final String binding;
+
+    private final int messages;
+
+    private final int batchSize;
+
+    private final List<Integer> workers;
+
+    ThroughputBenchmark(StreamBridge streamBridge, BatchMessageProcessor processor, Tracer tracer,
+            Propagator propagator, BindingServiceProperties bindingServiceProperties,
+            @Value("${benchmark.binding:batchChannel-in-0}") String binding,
+            @Value("${benchmark.messages:100000}") int messages, @Value("${benchmark.batch-size:100}") int batchSize,
+            @Value("${benchmark.workers:1,2,4,8}") List<Integer> workers) {
+        String binder = bindingServiceProperties.getBinder(binding);
+        binder = binder != null ? binder : bindingServiceProperties.getDefaultBinder();
+        if (!TEST_BINDER.equals(binder)) {
+            throw new IllegalStateException("The throughput benchmark needs the synchronous test binder [" + TEST_BINDER
+                    + "] for binding [" + binding + "], but got [" + binder + "]");
+        }
+        this.streamBridge = streamBridge;
+        this.processor = processor;
+        this.tracer = tracer;
+        this.propagator = propagator;
+        this.binding = binding;
+        this.messages = messages;
+        this.batchSize = batchSize;
+        this.workers = workers;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Throughput benchmark, {} messages to [{}] in batches of {}, workers {}", this.messages, this.binding,
+                this.batchSize, this.workers);
+        // warm up the JIT, those numbers are not reported
+        measure(this.workers.get(0), Math.max(this.batchSize, this.messages / 10));
+        log.info(String.format("%8s %12s %12s %12s %14s", "workers", "messages/s", "batch p50 ms", "batch p99 ms",
+                "cpu us/message"));
+        for (int workers : this.workers) {
+            Result result = measure(workers, this.messages);
+            log.info(String.format("%8d %12.1f %12.2f %12.2f %14.2f", result.workers(), result.messagesPerSecond(),
+                    result.batchP50Millis(), result.batchP99Millis(), result.cpuMicrosPerMessage()));
+        }
+    }
+
+    Result measure(int workers, int count) {
+        this.processor.setWorkers(workers);
+        Timer batches = Timer.builder("benchmark.batch")
+            .publishPercentiles(0.5, 0.99)
+            .register(new SimpleMeterRegistry());
+        long processedBefore = this.processor.processed();
+        long cpuBefore = processCpuTime();
+        long start = System.nanoTime();
+        for (int sent = 0; sent < count; sent += this.batchSize) {
+            Message<List<String>> batch = batch(sent, Math.min(this.batchSize, count - sent));
+            batches.record(() -> this.streamBridge.send(this.binding, batch));
+        }
+        long wallNanos = System.nanoTime() - start;
+        long cpuNanos = processCpuTime() - cpuBefore;
+        long processed = this.processor.processed() - processedBefore;
+        return new Result(workers, processed / (wallNanos / 1e9), percentile(batches, 0.5), percentile(batches, 0.99),
+                cpuNanos / 1e3 / Math.max(1, processed), processed);
+    }
+
+    private Message<List<String>> batch(int first, int size) {
+        List<String> payloads = new ArrayList<>(size);
+        List<Map<String, Object>> headers = new ArrayList<>(size);
+        for (int i = first; i < first + size; i++) {
+            payloads.add("HELLO " + i);
+            // a new trace per message, as if every one of them was sent separately
+            TraceContext context = this.tracer.nextSpan().context();
+            Map<String, Object> messageHeaders = new HashMap<>();
+            this.propagator.inject(context, messageHeaders, Map::put);
+            headers.add(messageHeaders);
+        }
+        return MessageBuilder.withPayload(payloads)
+            .setHeader(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, headers)
+            .build();
+    }
+
+    private static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    record Result(int workers, double messagesPerSecond, double batchP50Millis, double batchP99Millis,
+            double cpuMicrosPerMessage, long processed) {
+    }
+
+}
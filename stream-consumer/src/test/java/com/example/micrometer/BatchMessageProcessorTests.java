@@ -0,0 +1,49 @@
+package com.example.micrometer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.integration.amqp.inbound.AmqpInboundChannelAdapter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(OutputCaptureExtension.class)
+@AutoConfigureObservability
+@ActiveProfiles("batch")
+@Import(TestChannelBinderConfiguration.class)
+@SpringBootTest(properties = { "spring.cloud.stream.default-binder=integration", "batch-channel.workers=2" })
+class BatchMessageProcessorTests {
+
+    @Autowired
+    BatchMessageProcessor processor;
+
+    @Autowired
+    InputDestination input;
+
+    @Test
+    void should_continue_the_trace_of_every_message_of_the_batch(CapturedOutput output) {
+        List<Map<String, Object>> headers = List.of(Map.of("b3", "463ac35c9f6413ad-463ac35c9f6413ad-1"),
+                Map.of("b3", "5af7183fb1d4cf5f-5af7183fb1d4cf5f-1"));
+        long processed = this.processor.processed();
+
+        this.input.send(MessageBuilder.withPayload(List.of("first", "second"))
+            .setHeader(AmqpInboundChannelAdapter.CONSOLIDATED_HEADERS, headers)
+            .build(), "channeldestination");
+
+        then(this.processor.processed() - processed).isEqualTo(2);
+        then(output).contains("463ac35c9f6413ad").contains("5af7183fb1d4cf5f");
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.cloud.stream.config.BindingServiceProperties;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.assertj.core.api.BDDAssertions.thenThrownBy;
+
+@AutoConfigureObservability
+@ActiveProfiles("batch")
+@Import(TestChannelBinderConfiguration.class)
+@SpringBootTest(properties = { "spring.cloud.stream.default-binder=integration", "batch-channel.log-every=100000" })
+class ThroughputBenchmarkTests {
+
+    @Autowired
+    StreamBridge streamBridge;
+
+    @Autowired
+    BatchMessageProcessor processor;
+
+    @Autowired
+    Tracer tracer;
+
+    @Autowired
+    Propagator propagator;
+
+    @Autowired
+    BindingServiceProperties bindingServiceProperties;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_process_every_message_of_the_batches() {
+        ThroughputBenchmark.Result result = benchmark(this.bindingServiceProperties).measure(4, 1000);
+
+        then(result.processed()).isEqualTo(1000);
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("stream-consumer.batch")
+            .hasTimerWithName("stream-consumer.message");
+    }
+
+    @Test
+    void should_refuse_other_binders() {
+        BindingServiceProperties rabbit = new BindingServiceProperties();
+        rabbit.setDefaultBinder("rabbit");
+
+        thenThrownBy(() -> benchmark(rabbit)).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("[rabbit]");
+    }
+
+    private ThroughputBenchmark benchmark(BindingServiceProperties bindingServiceProperties) {
+        return new ThroughputBenchmark(this.streamBridge, this.processor, this.tracer, this.propagator,
+                bindingServiceProperties, "batchChannel-in-0", 1000, 100, List.of(1, 4));
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.ReceiverContext;
+import io.micrometer.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Consumes the binding with bounded demand. At most {@code concurrency} micro-batches of
+ * up to {@code batchSize} messages (or whatever arrived within {@code batchTimeout}) are
+ * handed to the sink at a time and the upstream is asked for {@code limitRate} messages
+ * at once, so a slow sink makes the binder wait instead of letting messages pile up in
+ * memory. With a {@code bufferSize} the oldest messages beyond it are dropped rather than
+ * slowing down the binder. The trace propagated in the headers of a message is only
+ * restored for the messages that get logged, every {@code logEvery}-th one or none when
+ * it is {@code 0}.
+ * <p>
+ * Meters: {@code stream.consumer.buffered} (messages taken from the binding but not yet
+ * processed), {@code stream.consumer.dropped} and {@code stream.consumer.late} (messages
+ * that waited longer than {@code maxLatency} in the pipeline).
+ */
+class BoundedMessageConsumer implements Consumer<Flux<Message<String>>> {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedMessageConsumer.class);
+
+    private final Tracer tracer;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final int limitRate;
+
+    private final int concurrency;
+
+    private final int batchSize;
+
+    private final Duration batchTimeout;
+
+    private final int bufferSize;
+
+    private final Duration maxLatency;
+
+    private final long logEvery;
+
+    private final Duration sinkDelay;
+
+    private final AtomicLong buffered = new AtomicLong();
+
+    private final AtomicLong processed = new AtomicLong();
+
+    private final Counter dropped;
+
+    private final Counter late;
+
+    BoundedMessageConsumer(Tracer tracer, ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            int limitRate, int concurrency, int batchSize, Duration batchTimeout, int bufferSize, Duration maxLatency,
+            long logEvery, Duration sinkDelay) {
+        this.tracer = tracer;
+        this.observationRegistry = observationRegistry;
+        this.limitRate = limitRate;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.batchTimeout = batchTimeout;
+        this.bufferSize = bufferSize;
+        this.maxLatency = maxLatency;
+        this.logEvery = logEvery;
+        this.sinkDelay = sinkDelay;
+        Gauge.builder("stream.consumer.buffered", this.buffered, AtomicLong::get)
+            .description("Messages taken from the binding that were not processed yet")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("stream.consumer.dropped")
+            .description("Messages dropped because the buffer was full")
+            .register(meterRegistry);
+        this.late = Counter.builder("stream.consumer.late")
+            .description("Messages that waited longer than the max latency before they got processed")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void accept(Flux<Message<String>> flux) {
+        Flux<Received> received = flux.map(message -> {
+            this.buffered.incrementAndGet();
+            return new Received(message, System.nanoTime());
+        });
+        if (this.bufferSize > 0) {
+            received = received.onBackpressureBuffer(this.bufferSize, this::drop, BufferOverflowStrategy.DROP_OLDEST);
+        }
+        received.limitRate(this.limitRate)
+            // fair backpressure, batches are only requested when the sink asks for them
+            .bufferTimeout(this.batchSize, this.batchTimeout, true)
+            .flatMap(batch -> Mono.fromRunnable(() -> sink(batch)).subscribeOn(Schedulers.boundedElastic()),
+                    this.concurrency)
+            .subscribe();
+    }
+
+    long processed() {
+        return this.processed.get();
+    }
+
+    private void drop(Received received) {
+        this.buffered.decrementAndGet();
+        this.dropped.increment();
+    }
+
+    private void sink(List<Received> batch) {
+        if (!this.sinkDelay.isZero()) {
+            try {
+                Thread.sleep(this.sinkDelay.toMillis());
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long maxLatencyNanos = this.maxLatency.toNanos();
+        for (Received received : batch) {
+            if (maxLatencyNanos > 0 && System.nanoTime() - received.nanos() > maxLatencyNanos) {
+                this.late.increment();
+            }
+            long count = this.processed.incrementAndGet();
+            if (this.logEvery > 0 && count % this.logEvery == 0) {
+                withTraceContext(received.message(), () -> log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer",
+                        this.tracer.currentSpan().context().traceId()));
+            }
+            this.buffered.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs the action in an observation that continues the trace propagated with the
+     * message, the tracing handler extracts it from the headers when it starts.
+     */
+    private void withTraceContext(Message<String> message, Runnable action) {
+        ReceiverContext<MessageHeaders> context = new ReceiverContext<>((headers, key) -> {
+            Object value = headers.get(key);
+            return value != null ? value.toString() : null;
+        });
+        context.setCarrier(message.getHeaders());
+        Observation.createNotStarted("on-message", () -> context, this.observationRegistry).observe(action);
+    }
+
+    private record Received(Message<String> message, long nanos) {
+    }
+
+}
@@ -1,9 +1,11 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,6 +14,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.messaging.Message;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.function.Consumer;
 
 @SpringBootApplication
@@ -29,8 +32,19 @@ public class StreamReactiveConsumerApplication implements CommandLineRunner {
         log.warn("Remember about finishing the span manually before calling subscribe!");
     }
 
+    // channel.bounded=false brings back the previous pipeline with unbounded demand
     @Bean
-    Consumer<Flux<Message<String>>> channel(Tracer tracer, ObservationRegistry observationRegistry) {
+    Consumer<Flux<Message<String>>> channel(Tracer tracer, ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry, @Value("${channel.bounded:true}") boolean bounded,
+            @Value("${channel.limit-rate:256}") int limitRate, @Value("${channel.concurrency:4}") int concurrency,
+            @Value("${channel.batch-size:64}") int batchSize,
+            @Value("${channel.batch-timeout:100ms}") Duration batchTimeout,
+            @Value("${channel.buffer-size:0}") int bufferSize, @Value("${channel.max-latency:1s}") Duration maxLatency,
+            @Value("${channel.log-every:1}") long logEvery, @Value("${channel.sink-delay:0ms}") Duration sinkDelay) {
+        if (bounded) {
+            return new BoundedMessageConsumer(tracer, observationRegistry, meterRegistry, limitRate, concurrency,
+                    batchSize, batchTimeout, bufferSize, maxLatency, logEvery, sinkDelay);
+        }
         return flux -> flux
             .doOnNext(msg -> log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from consumer",
                     tracer.currentSpan().context().traceId()))
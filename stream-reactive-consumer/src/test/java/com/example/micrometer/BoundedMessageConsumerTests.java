@@ -0,0 +1,53 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.InputDestination;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.BDDAssertions.then;
+import static org.awaitility.Awaitility.await;
+
+@AutoConfigureObservability
+@Import(TestChannelBinderConfiguration.class)
+@SpringBootTest(properties = { "spring.cloud.stream.default-binder=integration", "channel.limit-rate=8",
+        "channel.concurrency=1", "channel.batch-size=8", "channel.buffer-size=16", "channel.sink-delay=5ms",
+        "channel.max-latency=1ms", "channel.log-every=50" })
+class BoundedMessageConsumerTests {
+
+    @Autowired
+    InputDestination input;
+
+    @Autowired
+    BoundedMessageConsumer channel;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_drop_the_oldest_messages_when_the_sink_falls_behind() {
+        int sent = 500;
+        for (int i = 0; i < sent; i++) {
+            this.input.send(MessageBuilder.withPayload("message " + i).build(), "channelreactivedestination");
+        }
+
+        await().atMost(Duration.ofSeconds(30))
+            .untilAsserted(() -> then(this.channel.processed() + dropped()).isEqualTo(sent));
+        then(dropped()).isPositive();
+        then(this.meterRegistry.get("stream.consumer.buffered").gauge().value()).isZero();
+        MeterRegistryAssert.then(this.meterRegistry).hasMeterWithName("stream.consumer.late");
+    }
+
+    private long dropped() {
+        return (long) this.meterRegistry.get("stream.consumer.dropped").counter().count();
+    }
+
+}
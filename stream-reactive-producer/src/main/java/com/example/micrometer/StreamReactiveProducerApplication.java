@@ -1,11 +1,14 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -14,8 +17,10 @@ import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.Bean;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -31,18 +36,35 @@ public class StreamReactiveProducerApplication implements CommandLineRunner {
     @Autowired
     StreamBridgeService streamBridgeService;
 
+    @Value("${benchmark:}")
+    String benchmark;
+
     @Override
     public void run(String... args) throws Exception {
+        if (StringUtils.hasText(this.benchmark)) {
+            return;
+        }
         this.streamBridgeService.call();
     }
 
     // Function<Mono<?>, Mono<?>> and Supplier<Mono<?>> and Consumer<Mono<?>> are not
     // supported in Stream
 
+    // at high rates only tracing-function.log-probability of the messages get logged
     @Bean
-    Function<Flux<Message<String>>, Flux<Message<String>>> tracingFunction(Tracer tracer) {
-        return s -> s.doOnNext(i -> log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from producer function flux",
-                tracer.currentSpan().context().traceId()));
+    Function<Flux<Message<String>>, Flux<Message<String>>> tracingFunction(Tracer tracer, MeterRegistry meterRegistry,
+            @Value("${tracing-function.log-probability:1.0}") double logProbability) {
+        Counter messages = Counter.builder("tracing-function.messages")
+            .description("Messages that went through the tracing function")
+            .register(meterRegistry);
+        return s -> s.doOnNext(i -> {
+            messages.increment();
+            if ((logProbability >= 1.0 || ThreadLocalRandom.current().nextDouble() < logProbability)
+                    && tracer.currentSpan() != null) {
+                log.info("<ACCEPTANCE_TEST> <TRACE:{}> Hello from producer function flux",
+                        tracer.currentSpan().context().traceId());
+            }
+        });
     }
 
     // @PollableBean
@@ -0,0 +1,157 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * High-rate mode of the producer. {@code benchmark.messages} messages are generated by
+ * {@code Flux.range}, or by {@code Flux.interval} at {@code benchmark.rate} messages/sec
+ * dropping the ticks the sender cannot keep up with, and sent through the
+ * {@link StreamBridge} into the {@code tracingFunction} in batches of
+ * {@code benchmark.batch-size}. Each batch is sent within one
+ * {@code stream.producer.batch} observation and only
+ * {@code benchmark.message-observation.probability} of the messages get their own
+ * {@code stream.producer} observation. The run ends once the function saw all messages;
+ * messages/sec and the bytes allocated per message by all threads along the way are
+ * reported. Start it with {@code benchmark=throughput}, adding
+ * {@code tracing-function.log-probability=0} keeps the function from logging every
+ * message.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "throughput")
+class ThroughputBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputBenchmark.class);
+
+    private final StreamBridge streamBridge;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final Counter functionMessages;
+
+    private final String binding;
+
+    private final int messages;
+
+    private final int rate;
+
+    private final int batchSize;
+
+    private final double messageObservationProbability;
+
+    ThroughputBenchmark(StreamBridge streamBridge, ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            @Value("${benchmark.binding:tracingFunction-in-0}") String binding,
+            @Value("${benchmark.messages:100000}") int messages, @Value("${benchmark.rate:0}") int rate,
+            @Value("${benchmark.batch-size:100}") int batchSize,
+            @Value("${benchmark.message-observation.probability:0.01}") double messageObservationProbability) {
+        this.streamBridge = streamBridge;
+        this.observationRegistry = observationRegistry;
+        this.functionMessages = meterRegistry.counter("tracing-function.messages");
+        this.binding = binding;
+        this.messages = messages;
+        this.rate = rate;
+        this.batchSize = batchSize;
+        this.messageObservationProbability = messageObservationProbability;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        log.info("Throughput benchmark, {} messages to [{}] at {}, batch size {}, message observation probability {}",
+                this.messages, this.binding, this.rate > 0 ? this.rate + " messages/s" : "full speed", this.batchSize,
+                this.messageObservationProbability);
+        // warm up the JIT, those numbers are not reported
+        measure(Math.max(this.batchSize, this.messages / 10));
+        Result result = measure(this.messages);
+        log.info(String.format("%12s %8s %14s %10s", "messages/s", "dropped", "bytes/message", "received"));
+        log.info(String.format("%12.1f %8d %14d %10d", result.messagesPerSecond(), result.dropped(),
+                result.allocatedBytesPerMessage(), result.received()));
+    }
+
+    Result measure(int count) throws InterruptedException {
+        LongAdder dropped = new LongAdder();
+        double receivedBefore = this.functionMessages.count();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        source(count, dropped).map(i -> MessageBuilder.withPayload("HELLO " + i).build())
+            .buffer(this.batchSize)
+            // one batch in flight, the source is only asked for the next batch once the
+            // previous one was sent
+            .concatMap(batch -> Mono.fromRunnable(() -> send(batch)).subscribeOn(Schedulers.boundedElastic()), 1)
+            .blockLast();
+        long expected = count - dropped.sum();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (this.functionMessages.count() - receivedBefore < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        long wallNanos = System.nanoTime() - start;
+        long received = (long) (this.functionMessages.count() - receivedBefore);
+        return new Result(received / (wallNanos / 1e9), dropped.sum(),
+                (allocatedBytes() - allocatedBefore) / Math.max(1, received), received);
+    }
+
+    private Flux<Integer> source(int count, LongAdder dropped) {
+        if (this.rate <= 0) {
+            return Flux.range(0, count);
+        }
+        return Flux.interval(Duration.ofNanos(TimeUnit.SECONDS.toNanos(1) / this.rate))
+            .take(count)
+            .onBackpressureDrop(tick -> dropped.increment())
+            .map(Long::intValue);
+    }
+
+    private void send(List<Message<String>> batch) {
+        Observation.createNotStarted("stream.producer.batch", this.observationRegistry)
+            .highCardinalityKeyValue("batch.size", String.valueOf(batch.size()))
+            .observe(() -> {
+                for (Message<String> message : batch) {
+                    if (sampled()) {
+                        Observation.createNotStarted("stream.producer", this.observationRegistry)
+                            .observe(() -> this.streamBridge.send(this.binding, message));
+                    }
+                    else {
+                        this.streamBridge.send(this.binding, message);
+                    }
+                }
+            });
+    }
+
+    private boolean sampled() {
+        return this.messageObservationProbability >= 1.0 || (this.messageObservationProbability > 0.0
+                && ThreadLocalRandom.current().nextDouble() < this.messageObservationProbability);
+    }
+
+    // threads that finished during the run are not accounted for
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            allocated += Math.max(0, bytes);
+        }
+        return allocated;
+    }
+
+    record Result(double messagesPerSecond, long dropped, long allocatedBytesPerMessage, long received) {
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@AutoConfigureObservability
+@Import(TestChannelBinderConfiguration.class)
+@SpringBootTest(properties = { "spring.cloud.stream.default-binder=integration", "tracing-function.log-probability=0" })
+class ThroughputBenchmarkTests {
+
+    @Autowired
+    StreamBridge streamBridge;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_push_every_message_through_the_function() throws Exception {
+        ThroughputBenchmark benchmark = new ThroughputBenchmark(this.streamBridge, this.observationRegistry,
+                this.meterRegistry, "tracingFunction-in-0", 1000, 0, 100, 1.0);
+
+        ThroughputBenchmark.Result result = benchmark.measure(1000);
+
+        then(result.received()).isEqualTo(1000);
+        then(result.dropped()).isZero();
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithName("stream.producer.batch")
+            .hasTimerWithName("stream.producer");
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.example.micrometer;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A compute-heavy workload that is split into {@code subtasks} ranges with fork-join and
+ * summed up again. Every subtask is timed with the {@code task.subtask} timer. How much
+ * of the caller's context the worker threads get to see depends on the
+ * {@link Propagation}: nothing, the thread locals restored from a {@link ContextSnapshot}
+ * taken once by the caller (so the logs of the workers carry the trace id), or on top of
+ * that a child {@code task.subtask} observation, and therefore a span, per subtask.
+ */
+class ParallelWorkload {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelWorkload.class);
+
+    private final ObservationRegistry observationRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int workIterations;
+
+    ParallelWorkload(ObservationRegistry observationRegistry, MeterRegistry meterRegistry, int workIterations) {
+        this.observationRegistry = observationRegistry;
+        this.meterRegistry = meterRegistry;
+        this.workIterations = workIterations;
+    }
+
+    /**
+     * Computes the checksum of {@code items} items on the given pool within a
+     * {@code task.parallel} observation.
+     * @return the checksum, which does not depend on the pool or the propagation
+     */
+    long compute(ForkJoinPool pool, long items, int subtasks, Propagation propagation) {
+        return Observation.createNotStarted("task.parallel", this.observationRegistry)
+            .lowCardinalityKeyValue("propagation", propagation.tagValue())
+            .lowCardinalityKeyValue("parallelism", String.valueOf(pool.getParallelism()))
+            .highCardinalityKeyValue("subtasks", String.valueOf(subtasks))
+            .observe(() -> {
+                ContextSnapshot snapshot = propagation != Propagation.NONE ? ContextSnapshot.captureAll() : null;
+                long threshold = Math.max(1, (items + subtasks - 1) / subtasks);
+                return pool.invoke(new Subtask(0, items, threshold, propagation, snapshot));
+            });
+    }
+
+    private long computeRange(long from, long to) {
+        long sum = 0;
+        for (long i = from; i < to; i++) {
+            long x = i;
+            for (int j = 0; j < this.workIterations; j++) {
+                x = mix(x);
+            }
+            sum += x;
+        }
+        log.debug("Computed subtask [{}, {})", from, to);
+        return sum;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+
+    enum Propagation {
+
+        /**
+         * Worker threads run without the caller's context.
+         */
+        NONE,
+
+        /**
+         * Worker threads restore the thread locals captured by the caller.
+         */
+        SNAPSHOT,
+
+        /**
+         * Like {@link #SNAPSHOT}, each subtask is observed as a child of the caller's
+         * observation as well.
+         */
+        OBSERVATION;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        static Propagation fromName(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+
+    }
+
+    private final class Subtask extends RecursiveTask<Long> {
+
+        private final long from;
+
+        private final long to;
+
+        private final long threshold;
+
+        private final Propagation propagation;
+
+        private final ContextSnapshot snapshot;
+
+        private Subtask(long from, long to, long threshold, Propagation propagation, ContextSnapshot snapshot) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.propagation = propagation;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from <= this.threshold) {
+                return leaf();
+            }
+            // split on a multiple of the threshold so that every leaf is a full subtask
+            long middle = this.from + (this.to - this.from + this.threshold) / (2 * this.threshold) * this.threshold;
+            Subtask left = new Subtask(this.from, middle, this.threshold, this.propagation, this.snapshot);
+            Subtask right = new Subtask(middle, this.to, this.threshold, this.propagation, this.snapshot);
+            left.fork();
+            return right.compute() + left.join();
+        }
+
+        private long leaf() {
+            if (this.snapshot == null) {
+                return timed();
+            }
+            try (ContextSnapshot.Scope scope = this.snapshot.setThreadLocals()) {
+                if (this.propagation == Propagation.OBSERVATION) {
+                    return Observation.createNotStarted("task.subtask", observationRegistry)
+                        .lowCardinalityKeyValue("propagation", this.propagation.tagValue())
+                        .observe(() -> computeRange(this.from, this.to));
+                }
+                return timed();
+            }
+        }
+
+        private long timed() {
+            // same tags as the ones the observation based timer gets
+            Timer timer = Timer.builder("task.subtask")
+                .tag("propagation", this.propagation.tagValue())
+                .tag("error", "none")
+                .register(meterRegistry);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long sum = computeRange(this.from, this.to);
+            sample.stop(timer);
+            return sum;
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the parallel workload on pools of {@code benchmark.parallelism} threads (by
+ * default 1, 2, 4, ... up to the number of available processors) for every
+ * {@code benchmark.propagation} and logs the wall time, the speedup over a single thread,
+ * the overhead of the propagation compared to {@code none} on the same number of threads,
+ * CPU time and the mean duration of a subtask. Start it with {@code benchmark=scaling}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "scaling")
+class ScalingBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ScalingBenchmark.class);
+
+    private final ParallelWorkload workload;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long items;
+
+    private final int subtasks;
+
+    private final List<Integer> parallelisms;
+
+    private final List<ParallelWorkload.Propagation> propagations;
+
+    ScalingBenchmark(ParallelWorkload workload, MeterRegistry meterRegistry,
+            @Value("${benchmark.items:4000000}") long items, @Value("${benchmark.subtasks:256}") int subtasks,
+            @Value("${benchmark.parallelism:}") List<Integer> parallelisms,
+            @Value("${benchmark.propagation:none,snapshot,observation}") List<String> propagations) {
+        this.workload = workload;
+        this.meterRegistry = meterRegistry;
+        this.items = items;
+        this.subtasks = subtasks;
+        this.parallelisms = parallelisms.isEmpty() ? upToAvailableProcessors() : parallelisms;
+        this.propagations = propagations.stream().map(ParallelWorkload.Propagation::fromName).toList();
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Scaling benchmark, {} items in {} subtasks, parallelism {}, propagation {}", this.items,
+                this.subtasks, this.parallelisms, this.propagations);
+        // warm up the JIT, those numbers are not reported
+        for (ParallelWorkload.Propagation propagation : this.propagations) {
+            measure(this.items / 10, this.subtasks, this.parallelisms.get(this.parallelisms.size() - 1), propagation);
+        }
+        log.info(String.format("%8s %12s %10s %10s %10s %10s %14s", "threads", "propagation", "wall ms", "speedup",
+                "overhead %", "cpu ms", "subtask us"));
+        Map<ParallelWorkload.Propagation, Double> singleThreaded = new HashMap<>();
+        for (int parallelism : this.parallelisms) {
+            Map<ParallelWorkload.Propagation, Result> results = new HashMap<>();
+            for (ParallelWorkload.Propagation propagation : this.propagations) {
+                Result result = measure(this.items, this.subtasks, parallelism, propagation);
+                results.put(propagation, result);
+                singleThreaded.putIfAbsent(propagation, result.wallMillis());
+                Result baseline = results.get(ParallelWorkload.Propagation.NONE);
+                double overhead = baseline != null ? (result.wallMillis() / baseline.wallMillis() - 1) * 100
+                        : Double.NaN;
+                log.info(String.format("%8d %12s %10.1f %10.2f %10.1f %10.1f %14.1f", parallelism,
+                        propagation.tagValue(), result.wallMillis(),
+                        singleThreaded.get(propagation) / result.wallMillis(), overhead, result.cpuMillis(),
+                        result.subtaskMicros()));
+            }
+        }
+    }
+
+    Result measure(long items, int subtasks, int parallelism, ParallelWorkload.Propagation propagation) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long subtasksBefore = subtaskCount(propagation);
+            double subtaskMillisBefore = subtaskMillis(propagation);
+            long cpuBefore = processCpuTime();
+            long start = System.nanoTime();
+            long checksum = this.workload.compute(pool, items, subtasks, propagation);
+            long wallNanos = System.nanoTime() - start;
+            long cpuNanos = processCpuTime() - cpuBefore;
+            long timed = subtaskCount(propagation) - subtasksBefore;
+            double subtaskMillis = subtaskMillis(propagation) - subtaskMillisBefore;
+            return new Result(checksum, timed, wallNanos / 1e6, cpuNanos / 1e6,
+                    timed > 0 ? subtaskMillis * 1000 / timed : Double.NaN);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private long subtaskCount(ParallelWorkload.Propagation propagation) {
+        return subtaskTimers(propagation).stream().mapToLong(Timer::count).sum();
+    }
+
+    private double subtaskMillis(ParallelWorkload.Propagation propagation) {
+        return subtaskTimers(propagation).stream().mapToDouble(timer -> timer.totalTime(TimeUnit.MILLISECONDS)).sum();
+    }
+
+    private Collection<Timer> subtaskTimers(ParallelWorkload.Propagation propagation) {
+        return this.meterRegistry.find("task.subtask").tag("propagation", propagation.tagValue()).timers();
+    }
+
+    private static List<Integer> upToAvailableProcessors() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> parallelisms = new ArrayList<>();
+        for (int parallelism = 1; parallelism < processors; parallelism *= 2) {
+            parallelisms.add(parallelism);
+        }
+        parallelisms.add(processors);
+        return parallelisms;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    record Result(long checksum, long subtasks, double wallMillis, double cpuMillis, double subtaskMicros) {
+    }
+
+}
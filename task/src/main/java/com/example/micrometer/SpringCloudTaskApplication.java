@@ -1,9 +1,12 @@
 package com.example.micrometer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 import io.micrometer.tracing.Tracer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.WebApplicationType;
@@ -11,6 +14,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.cloud.task.configuration.EnableTask;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.StringUtils;
+
+import java.util.concurrent.ForkJoinPool;
 
 @SpringBootApplication
 @EnableTask
@@ -34,4 +40,31 @@ public class SpringCloudTaskApplication {
                 tracer.currentSpan().context().traceId());
     }
 
+    @Bean(destroyMethod = "shutdown")
+    ForkJoinPool taskPool(@Value("${parallel-task.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Bean
+    ParallelWorkload parallelWorkload(ObservationRegistry observationRegistry, MeterRegistry meterRegistry,
+            @Value("${parallel-task.work-iterations:100}") int workIterations) {
+        return new ParallelWorkload(observationRegistry, meterRegistry, workIterations);
+    }
+
+    @Bean
+    CommandLineRunner parallelTaskRunner(ParallelWorkload parallelWorkload, ForkJoinPool taskPool, Tracer tracer,
+            @Value("${parallel-task.items:1000000}") long items, @Value("${parallel-task.subtasks:64}") int subtasks,
+            @Value("${parallel-task.propagation:snapshot}") String propagation,
+            @Value("${benchmark:}") String benchmark) {
+        return args -> {
+            if (StringUtils.hasText(benchmark)) {
+                return;
+            }
+            long checksum = parallelWorkload.compute(taskPool, items, subtasks,
+                    ParallelWorkload.Propagation.fromName(propagation));
+            log.info("Computed {} items in {} subtasks on {} threads, checksum [{}], trace [{}]", items, subtasks,
+                    taskPool.getParallelism(), checksum, tracer.currentSpan().context().traceId());
+        };
+    }
+
 }
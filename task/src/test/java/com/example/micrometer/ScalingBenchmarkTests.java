@@ -0,0 +1,83 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.tck.MeterRegistryAssert;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.BDDAssertions.then;
+
+@ExtendWith(OutputCaptureExtension.class)
+@AutoConfigureObservability
+@SpringBootTest(properties = "logging.level.com.example.micrometer.ParallelWorkload=debug")
+class ScalingBenchmarkTests {
+
+    @Autowired
+    ParallelWorkload workload;
+
+    @Autowired
+    ObservationRegistry observationRegistry;
+
+    @Autowired
+    Tracer tracer;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void should_compute_the_same_checksum_regardless_of_threads_and_propagation() {
+        // Spring Cloud Task wraps every CommandLineRunner bean in a proxy, so the
+        // benchmark is created here instead of being looked up from the context
+        ScalingBenchmark benchmark = new ScalingBenchmark(this.workload, this.meterRegistry, 2000, 8, List.of(1, 2),
+                List.of("none", "snapshot", "observation"));
+        benchmark.run();
+
+        ScalingBenchmark.Result expected = benchmark.measure(10_000, 16, 1, ParallelWorkload.Propagation.NONE);
+
+        for (ParallelWorkload.Propagation propagation : ParallelWorkload.Propagation.values()) {
+            ScalingBenchmark.Result result = benchmark.measure(10_000, 16, 4, propagation);
+
+            then(result.checksum()).isEqualTo(expected.checksum());
+            then(result.subtasks()).isEqualTo(16);
+        }
+        MeterRegistryAssert.then(this.meterRegistry)
+            .hasTimerWithNameAndTags("task.subtask", Tags.of("propagation", "snapshot"))
+            .hasTimerWithName("task.parallel");
+    }
+
+    @Test
+    void should_propagate_the_trace_to_every_subtask(CapturedOutput output) {
+        // skips what the runners of the task logged on startup
+        int offset = output.getOut().length();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            String traceId = Observation.createNotStarted("test", this.observationRegistry).observe(() -> {
+                this.workload.compute(pool, 10_000, 16, ParallelWorkload.Propagation.SNAPSHOT);
+                return this.tracer.currentSpan().context().traceId();
+            });
+
+            List<String> subtasks = output.getOut()
+                .substring(offset)
+                .lines()
+                .filter(line -> line.contains("Computed subtask"))
+                .toList();
+            then(subtasks).hasSize(16).allMatch(line -> line.contains(traceId));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the payload size x codec x concurrency matrix for request body compression and
+ * logs CPU time, bytes on the wire and latency for every combination. Start it with
+ * {@code benchmark=compression}, usually together with {@code echo-server.enabled=true}
+ * so that the echo endpoint runs in the same JVM. Keep in mind that the process CPU time
+ * then includes decoding on the server side as well.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "compression")
+class CompressionBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionBenchmark.class);
+
+    private final WebClient.Builder builder;
+
+    private final String url;
+
+    private final List<Integer> payloadSizes;
+
+    private final List<RequestBodyCompression> codecs;
+
+    private final List<Integer> concurrencies;
+
+    private final int requests;
+
+    private final boolean responseCompression;
+
+    CompressionBenchmark(WebClient.Builder builder, @Value("${url:http://localhost:3000}") String url,
+            @Value("${benchmark.payload-sizes:1024,65536,3500000}") List<Integer> payloadSizes,
+            @Value("${benchmark.codecs:}") List<String> codecs,
+            @Value("${benchmark.concurrency:1,16,64}") List<Integer> concurrencies,
+            @Value("${benchmark.requests:200}") int requests,
+            @Value("${webclient.response-compression:true}") boolean responseCompression) {
+        this.builder = builder;
+        this.url = url;
+        this.payloadSizes = payloadSizes;
+        this.codecs = codecs.isEmpty() ? RequestBodyCompression.available()
+                : codecs.stream().map(RequestBodyCompression::fromName).toList();
+        this.concurrencies = concurrencies;
+        this.requests = requests;
+        this.responseCompression = responseCompression;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Compression benchmark against [{}], {} requests per run, response compression [{}]", this.url,
+                this.requests, this.responseCompression);
+        log.info(String.format("%10s %8s %6s %12s %14s %14s %10s %10s %10s", "payload", "codec", "conc", "cpu ms/req",
+                "sent B/req", "recv B/req", "p50 ms", "p99 ms", "req/s"));
+        for (int payloadSize : this.payloadSizes) {
+            byte[] payload = payload(payloadSize);
+            for (RequestBodyCompression codec : this.codecs) {
+                if (!codec.isAvailable()) {
+                    log.warn("Skipping codec [{}], it is not available on this platform", codec);
+                    continue;
+                }
+                for (int concurrency : this.concurrencies) {
+                    run(payload, codec, concurrency);
+                }
+            }
+        }
+    }
+
+    private void run(byte[] payload, RequestBodyCompression codec, int concurrency) {
+        WireBytesCounter counter = new WireBytesCounter();
+        ConnectionProvider provider = ConnectionProvider.builder("compression-benchmark")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        HttpClient httpClient = HttpClient.create(provider)
+            .compress(this.responseCompression)
+            .doOnChannelInit((observer, channel, address) -> channel.pipeline().addFirst(counter));
+        WebClient webClient = this.builder.clone()
+            .baseUrl(this.url)
+            .exchangeStrategies(ExchangeStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(payload.length * 2 + 1024))
+                .build())
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer latency = Timer.builder("benchmark.latency").publishPercentiles(0.5, 0.99).register(registry);
+        try {
+            // warm up connections and JIT, those numbers are not reported
+            send(webClient, payload, codec, concurrency, Math.max(concurrency, this.requests / 10), null);
+            counter.reset();
+
+            long cpuBefore = processCpuTime();
+            long start = System.nanoTime();
+            send(webClient, payload, codec, concurrency, this.requests, latency);
+            long wallNanos = System.nanoTime() - start;
+            long cpuNanos = processCpuTime() - cpuBefore;
+
+            log.info(String.format("%10d %8s %6d %12.3f %14d %14d %10.2f %10.2f %10.1f", payload.length, codec,
+                    concurrency, cpuNanos / 1e6 / this.requests, counter.written.sum() / this.requests,
+                    counter.read.sum() / this.requests, percentile(latency, 0.5), percentile(latency, 0.99),
+                    this.requests / (wallNanos / 1e9)));
+        }
+        finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    private void send(WebClient webClient, byte[] payload, RequestBodyCompression codec, int concurrency, int count,
+            Timer latency) {
+        Flux.range(0, count).flatMap(i -> {
+            long start = System.nanoTime();
+            return Mono.fromCallable(() -> codec.encode(payload))
+                .flatMap(body -> post(webClient, codec, body).retrieve().bodyToMono(byte[].class))
+                .doOnSuccess(response -> {
+                    if (latency != null) {
+                        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+        }, concurrency).blockLast();
+    }
+
+    private WebClient.RequestHeadersSpec<?> post(WebClient webClient, RequestBodyCompression codec, byte[] body) {
+        WebClient.RequestBodySpec request = webClient.post().uri("/echo").contentType(MediaType.TEXT_PLAIN);
+        if (codec.contentEncoding() != null) {
+            request.header(HttpHeaders.CONTENT_ENCODING, codec.contentEncoding());
+        }
+        return request.bodyValue(body);
+    }
+
+    private static byte[] payload(int size) {
+        String body = WebClientService.bodyStr.repeat(size / WebClientService.bodyStr.length() + 1);
+        return body.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static double percentile(Timer timer, double percentile) {
+        for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+            if (value.percentile() == percentile) {
+                return value.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static long processCpuTime() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getProcessCpuTime();
+    }
+
+    /**
+     * Counts the bytes that actually go through the socket, i.e. after the HTTP codec and
+     * any compression.
+     */
+    @ChannelHandler.Sharable
+    static class WireBytesCounter extends ChannelDuplexHandler {
+
+        final LongAdder written = new LongAdder();
+
+        final LongAdder read = new LongAdder();
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            this.read.add(readableBytes(msg));
+            super.channelRead(ctx, msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            this.written.add(readableBytes(msg));
+            super.write(ctx, msg, promise);
+        }
+
+        void reset() {
+            this.written.reset();
+            this.read.reset();
+        }
+
+        private static long readableBytes(Object msg) {
+            if (msg instanceof ByteBuf buf) {
+                return buf.readableBytes();
+            }
+            if (msg instanceof ByteBufHolder holder) {
+                return holder.content().readableBytes();
+            }
+            return 0;
+        }
+
+    }
+
+}
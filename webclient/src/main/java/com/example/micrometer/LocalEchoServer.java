@@ -0,0 +1,46 @@
+package com.example.micrometer;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Local stand-in for the {@code /echo} endpoint the sample posts to, so that the
+ * compression benchmark does not depend on anything running outside this JVM. Enable it
+ * with {@code echo-server.enabled=true}. The request body is decoded according to its
+ * {@code Content-Encoding} and sent back; the response is gzipped whenever the client
+ * advertises it through {@code Accept-Encoding}. Both HTTP/1.1 and cleartext HTTP/2 (h2c)
+ * clients are accepted. Use the {@code echo-stub} sample instead when the target should
+ * add latency or fail some of the requests.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "echo-server.enabled", havingValue = "true")
+class LocalEchoServer {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalEchoServer.class);
+
+    @Bean(destroyMethod = "disposeNow")
+    DisposableServer echoServer(@Value("${echo-server.port:3000}") int port) {
+        DisposableServer server = HttpServer.create()
+            .port(port)
+            .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+            .compress(true)
+            .route(routes -> routes.post("/echo", (request, response) -> {
+                RequestBodyCompression codec = RequestBodyCompression
+                    .fromContentEncoding(request.requestHeaders().get(HttpHeaderNames.CONTENT_ENCODING));
+                return response.header(HttpHeaderNames.CONTENT_TYPE, "text/plain")
+                    .sendByteArray(request.receive().aggregate().asByteArray().map(codec::decode));
+            }))
+            .bindNow();
+        log.info("Echo server listening on port={}", server.port());
+        return server;
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.example.micrometer;
+
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdInputStream;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codecs that can be used to compress the request body sent by the {@code WebClient}.
+ * Reactor Netty only negotiates response compression ({@code Accept-Encoding}), so the
+ * request body has to be encoded by us and labelled with a {@code Content-Encoding}
+ * header. zstd and brotli rely on native libraries and are only usable when Netty reports
+ * them as available on this platform.
+ */
+enum RequestBodyCompression {
+
+    NONE(null) {
+        @Override
+        byte[] encode(byte[] body) {
+            return body;
+        }
+
+        @Override
+        byte[] decode(byte[] body) {
+            return body;
+        }
+    },
+
+    GZIP("gzip") {
+        @Override
+        byte[] encode(byte[] body) {
+            return write(body, GZIPOutputStream::new);
+        }
+
+        @Override
+        byte[] decode(byte[] body) {
+            return read(body, GZIPInputStream::new);
+        }
+    },
+
+    DEFLATE("deflate") {
+        @Override
+        byte[] encode(byte[] body) {
+            return write(body, DeflaterOutputStream::new);
+        }
+
+        @Override
+        byte[] decode(byte[] body) {
+            return read(body, InflaterInputStream::new);
+        }
+    },
+
+    ZSTD("zstd") {
+        @Override
+        boolean isAvailable() {
+            return Zstd.isAvailable();
+        }
+
+        @Override
+        byte[] encode(byte[] body) {
+            return com.github.luben.zstd.Zstd.compress(body);
+        }
+
+        @Override
+        byte[] decode(byte[] body) {
+            return read(body, ZstdInputStream::new);
+        }
+    },
+
+    BROTLI("br") {
+        @Override
+        boolean isAvailable() {
+            return Brotli.isAvailable();
+        }
+
+        @Override
+        byte[] encode(byte[] body) {
+            try {
+                return Encoder.compress(body);
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        byte[] decode(byte[] body) {
+            try {
+                return Decoder.decompress(body).getDecompressedData();
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    };
+
+    private final String contentEncoding;
+
+    RequestBodyCompression(String contentEncoding) {
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return value of the {@code Content-Encoding} header or {@code null} when the body
+     * is sent as is
+     */
+    String contentEncoding() {
+        return this.contentEncoding;
+    }
+
+    boolean isAvailable() {
+        return true;
+    }
+
+    abstract byte[] encode(byte[] body);
+
+    abstract byte[] decode(byte[] body);
+
+    static RequestBodyCompression fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    static RequestBodyCompression fromContentEncoding(String contentEncoding) {
+        if (contentEncoding == null || contentEncoding.isBlank() || "identity".equalsIgnoreCase(contentEncoding)) {
+            return NONE;
+        }
+        return Arrays.stream(values())
+            .filter(codec -> contentEncoding.equalsIgnoreCase(codec.contentEncoding))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unsupported content encoding <" + contentEncoding + ">"));
+    }
+
+    static List<RequestBodyCompression> available() {
+        return Arrays.stream(values()).filter(RequestBodyCompression::isAvailable).toList();
+    }
+
+    private static byte[] write(byte[] body, StreamFactory<OutputStream> factory) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = factory.create(bytes)) {
+            out.write(body);
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] read(byte[] body, StreamFactory<InputStream> factory) {
+        try (InputStream in = factory.create(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StreamFactory<T> {
+
+        T create(T delegate) throws IOException;
+
+    }
+
+}
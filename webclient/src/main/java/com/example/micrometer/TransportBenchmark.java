@@ -0,0 +1,149 @@
+package com.example.micrometer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares HTTP/1.1 with cleartext HTTP/2 (h2c) at high concurrency. HTTP/1.1 needs one
+ * connection per in-flight request while HTTP/2 multiplexes the requests as streams over
+ * a handful of connections, so for every protocol and concurrency level the number of
+ * opened connections is logged next to the latency percentiles and throughput. Start it
+ * with {@code benchmark=transport}, usually together with
+ * {@code echo-server.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "benchmark", havingValue = "transport")
+class TransportBenchmark implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TransportBenchmark.class);
+
+    private final WebClient.Builder builder;
+
+    private final String url;
+
+    private final List<HttpProtocol> protocols;
+
+    private final List<Integer> concurrencies;
+
+    private final int requests;
+
+    private final byte[] payload;
+
+    private final int http2MaxConnections;
+
+    private final long http2MaxConcurrentStreams;
+
+    TransportBenchmark(WebClient.Builder builder, @Value("${url:http://localhost:3000}") String url,
+            @Value("${benchmark.protocols:http11,h2c}") List<String> protocols,
+            @Value("${benchmark.concurrency:64,256,1024}") List<Integer> concurrencies,
+            @Value("${benchmark.requests:20000}") int requests, @Value("${benchmark.payload-size:256}") int payloadSize,
+            @Value("${benchmark.http2.max-connections:4}") int http2MaxConnections,
+            @Value("${benchmark.http2.max-concurrent-streams:256}") long http2MaxConcurrentStreams) {
+        this.builder = builder;
+        this.url = url;
+        this.protocols = protocols.stream()
+            .map(protocol -> HttpProtocol.valueOf(protocol.trim().toUpperCase(Locale.ROOT)))
+            .toList();
+        this.concurrencies = concurrencies;
+        this.requests = requests;
+        this.payload = WebClientService.bodyStr.repeat(payloadSize / WebClientService.bodyStr.length() + 1)
+            .substring(0, payloadSize)
+            .getBytes(StandardCharsets.UTF_8);
+        this.http2MaxConnections = http2MaxConnections;
+        this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info(
+                "Transport benchmark against [{}], {} requests of {} bytes per run, h2c limited to {} connections x {}"
+                        + " streams",
+                this.url, this.requests, this.payload.length, this.http2MaxConnections, this.http2MaxConcurrentStreams);
+        log.info(String.format("%8s %6s %12s %10s %10s %10s", "protocol", "conc", "connections", "p50 ms", "p99 ms",
+                "req/s"));
+        for (HttpProtocol protocol : this.protocols) {
+            for (int concurrency : this.concurrencies) {
+                run(protocol, concurrency);
+            }
+        }
+    }
+
+    private void run(HttpProtocol protocol, int concurrency) {
+        LongAdder connections = new LongAdder();
+        ConnectionProvider.Builder providerBuilder = ConnectionProvider.builder("transport-benchmark")
+            .maxConnections(concurrency)
+            .pendingAcquireMaxCount(-1);
+        if (protocol != HttpProtocol.HTTP11) {
+            providerBuilder.allocationStrategy(Http2AllocationStrategy.builder()
+                .maxConnections(this.http2MaxConnections)
+                .maxConcurrentStreams(this.http2MaxConcurrentStreams)
+                .build());
+        }
+        ConnectionProvider provider = providerBuilder.build();
+        // for HTTP/2 the channel init callback fires for the connection, not for every
+        // stream
+        HttpClient httpClient = HttpClient.create(provider)
+            .protocol(protocol)
+            .doOnChannelInit((observer, channel, address) -> connections.increment());
+        WebClient webClient = this.builder.clone()
+            .baseUrl(this.url)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Timer latency = Timer.builder("benchmark.latency").publishPercentiles(0.5, 0.99).register(registry);
+        try {
+            // warm up connections and JIT, those numbers are not reported
+            send(webClient, concurrency, Math.max(concurrency, this.requests / 10), null);
+
+            long start = System.nanoTime();
+            send(webClient, concurrency, this.requests, latency);
+            long wallNanos = System.nanoTime() - start;
+
+            log.info(String.format("%8s %6d %12d %10.2f %10.2f %10.1f", protocol, concurrency, connections.sum(),
+                    CompressionBenchmark.percentile(latency, 0.5), CompressionBenchmark.percentile(latency, 0.99),
+                    this.requests / (wallNanos / 1e9)));
+        }
+        finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    private void send(WebClient webClient, int concurrency, int count, Timer latency) {
+        Flux.range(0, count).flatMap(i -> {
+            long start = System.nanoTime();
+            return webClient.post()
+                .uri("/echo")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue(this.payload)
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .doOnSuccess(response -> {
+                    if (latency != null) {
+                        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                });
+        }, concurrency).blockLast();
+    }
+
+}
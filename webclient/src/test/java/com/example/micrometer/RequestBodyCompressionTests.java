@@ -0,0 +1,34 @@
+package com.example.micrometer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.assertj.core.api.BDDAssertions.then;
+
+class RequestBodyCompressionTests {
+
+    private static final byte[] BODY = WebClientService.bodyStr.repeat(10).getBytes(StandardCharsets.UTF_8);
+
+    @ParameterizedTest
+    @EnumSource(RequestBodyCompression.class)
+    void should_decode_what_was_encoded(RequestBodyCompression codec) {
+        assumeThat(codec.isAvailable()).isTrue();
+
+        byte[] encoded = codec.encode(BODY);
+
+        then(codec.decode(encoded)).isEqualTo(BODY);
+        then(RequestBodyCompression.fromContentEncoding(codec.contentEncoding())).isSameAs(codec);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = RequestBodyCompression.class, names = "NONE", mode = EnumSource.Mode.EXCLUDE)
+    void should_shrink_compressible_body(RequestBodyCompression codec) {
+        assumeThat(codec.isAvailable()).isTrue();
+
+        then(codec.encode(BODY)).hasSizeLessThan(BODY.length);
+    }
+
+}